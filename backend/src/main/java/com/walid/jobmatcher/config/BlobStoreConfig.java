@@ -0,0 +1,45 @@
+package com.walid.jobmatcher.config;
+
+import com.cloudinary.Cloudinary;
+import com.walid.jobmatcher.service.BlobStore;
+import com.walid.jobmatcher.service.CloudinaryBlobStore;
+import com.walid.jobmatcher.service.InMemoryBlobStore;
+import com.walid.jobmatcher.service.LocalBlobStore;
+import com.walid.jobmatcher.service.ResumeFileCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+
+// The resume file backend, picked by resume.storage.backend: cloudinary (default), local or memory
+@Configuration
+public class BlobStoreConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "resume.storage.backend", havingValue = "cloudinary", matchIfMissing = true)
+    public BlobStore cloudinaryBlobStore(Cloudinary cloudinary,
+                                         HttpClient cloudinaryHttpClient,
+                                         ResumeFileCache resumeFileCache,
+                                         @Value("${cloudinary.http.fetch-timeout:30s}") Duration fetchTimeout,
+                                         MeterRegistry meterRegistry) {
+        return new CloudinaryBlobStore(cloudinary, cloudinaryHttpClient, resumeFileCache, fetchTimeout, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "resume.storage.backend", havingValue = "local")
+    public BlobStore localBlobStore(@Value("${resume.storage.local.root:data/resumes}") Path root) throws IOException {
+        return new LocalBlobStore(root);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "resume.storage.backend", havingValue = "memory")
+    public BlobStore inMemoryBlobStore() {
+        return new InMemoryBlobStore();
+    }
+}
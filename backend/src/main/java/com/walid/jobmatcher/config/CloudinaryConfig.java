@@ -1,12 +1,18 @@
 package com.walid.jobmatcher.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+// Only needed, along with its credentials, when resumes are stored on Cloudinary
 @Configuration
+@ConditionalOnProperty(name = "resume.storage.backend", havingValue = "cloudinary", matchIfMissing = true)
 public class CloudinaryConfig {
     @Value("${cloudinary.cloud-name}")
     private String cloudName;
@@ -25,4 +31,13 @@ public class CloudinaryConfig {
             "api_secret", apiSecret
         ));
     }
+
+    // Shared by every resume file download, so connections to the CDN are kept alive and reused
+    @Bean
+    public HttpClient cloudinaryHttpClient(@Value("${cloudinary.http.connect-timeout:5s}") Duration connectTimeout) {
+        return HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
 }
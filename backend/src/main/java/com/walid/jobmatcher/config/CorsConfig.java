@@ -31,6 +31,9 @@ public class CorsConfig {
         
         // Expose Authorization header
         config.addExposedHeader("Authorization");
+
+        // Expose total match count for paginated match results
+        config.addExposedHeader("X-Total-Count");
         
         source.registerCorsConfiguration("/**", config);
         return new CorsFilter(source);
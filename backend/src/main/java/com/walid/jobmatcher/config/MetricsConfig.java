@@ -0,0 +1,35 @@
+package com.walid.jobmatcher.config;
+
+import com.walid.jobmatcher.service.CandidateSkillIndex;
+import com.walid.jobmatcher.service.CandidateVectorIndex;
+import com.walid.jobmatcher.service.JobSkillIndex;
+import com.walid.jobmatcher.service.JobVectorIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Meters not owned by a single component. Pool and cache sizes are bound where those are
+ * built: the scoring pool in {@link ScoringConfig}, the match cache in MatchResultCache;
+ * Boot binds Hikari, Tomcat and the JVM itself.
+ */
+@Configuration
+public class MetricsConfig {
+
+    // match.index.size{index=...}: entries in each in-memory index
+    @Bean
+    public MeterBinder matchIndexMetrics(CandidateSkillIndex candidateSkillIndex, JobSkillIndex jobSkillIndex,
+                                         CandidateVectorIndex candidateVectorIndex, JobVectorIndex jobVectorIndex) {
+        return registry -> {
+            Gauge.builder("match.index.size", candidateSkillIndex, CandidateSkillIndex::size)
+                    .tag("index", "candidate-skills").register(registry);
+            Gauge.builder("match.index.size", jobSkillIndex, JobSkillIndex::size)
+                    .tag("index", "job-skills").register(registry);
+            Gauge.builder("match.index.size", candidateVectorIndex, CandidateVectorIndex::size)
+                    .tag("index", "candidate-vectors").register(registry);
+            Gauge.builder("match.index.size", jobVectorIndex, JobVectorIndex::size)
+                    .tag("index", "job-vectors").register(registry);
+        };
+    }
+}
@@ -0,0 +1,62 @@
+package com.walid.jobmatcher.config;
+
+import com.walid.jobmatcher.matching.Bm25Scorer;
+import com.walid.jobmatcher.matching.KeywordScorer;
+import com.walid.jobmatcher.matching.MatchScorer;
+import com.walid.jobmatcher.service.CandidateSkillIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Every MatchScorer bean can be picked by name on the match endpoints
+@Configuration
+public class ScoringConfig {
+
+    @Value("${matching.bm25.k1:1.2}")
+    private float k1;
+
+    @Value("${matching.bm25.b:0.75}")
+    private float b;
+
+    @Value("${matching.parallel.threads:0}")
+    private int threads;
+
+    @Bean
+    public MatchScorer keywordScorer() {
+        return new KeywordScorer();
+    }
+
+    @Bean
+    public MatchScorer bm25Scorer(CandidateSkillIndex candidateSkillIndex) {
+        return new Bm25Scorer(candidateSkillIndex, k1, b);
+    }
+
+    /**
+     * Dedicated pool for chunked candidate scoring, so matching never competes with
+     * parallel streams on the common pool. Never grows beyond its parallelism; 0 threads
+     * means one per core.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool matchScoringPool(MeterRegistry meterRegistry) {
+        int parallelism = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        ForkJoinPool.ForkJoinWorkerThreadFactory factory = pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("match-scoring-" + threadCount.incrementAndGet());
+            return thread;
+        };
+        ForkJoinPool pool = new ForkJoinPool(parallelism, factory, null, false,
+                0, parallelism, 1, null, 60, TimeUnit.SECONDS);
+        // executor.pool.size, executor.queued, executor.active, executor.steals, ...
+        new ExecutorServiceMetrics(pool, "match-scoring", Tags.empty()).bindTo(meterRegistry);
+        return pool;
+    }
+}
@@ -0,0 +1,37 @@
+package com.walid.jobmatcher.config;
+
+import com.walid.jobmatcher.matching.HashingEmbedder;
+import com.walid.jobmatcher.matching.HnswIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Embeddings live only in memory and are rebuilt at startup, so these can change freely
+@Configuration
+public class SemanticConfig {
+
+    @Value("${matching.semantic.dimensions:256}")
+    private int dimensions;
+
+    @Value("${matching.semantic.seed:42}")
+    private long seed;
+
+    @Value("${matching.semantic.hnsw.m:16}")
+    private int m;
+
+    @Value("${matching.semantic.hnsw.ef-construction:100}")
+    private int efConstruction;
+
+    @Value("${matching.semantic.hnsw.ef-search:64}")
+    private int efSearch;
+
+    @Bean
+    public HashingEmbedder hashingEmbedder() {
+        return new HashingEmbedder(dimensions, seed);
+    }
+
+    @Bean
+    public HnswIndex.Settings hnswSettings() {
+        return new HnswIndex.Settings(m, efConstruction, efSearch);
+    }
+}
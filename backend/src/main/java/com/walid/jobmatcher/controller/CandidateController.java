@@ -4,9 +4,6 @@ import com.walid.jobmatcher.entity.Candidate;
 import com.walid.jobmatcher.entity.Resume;
 import com.walid.jobmatcher.repository.CandidateRepository;
 import com.walid.jobmatcher.repository.ResumeRepository;
-import org.springframework.ai.document.Document;
-import org.springframework.ai.reader.tika.TikaDocumentReader;
-import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -16,18 +13,34 @@ import com.walid.jobmatcher.entity.JobApplication;
 import com.walid.jobmatcher.repository.JobApplicationRepository;
 import com.walid.jobmatcher.entity.JobPost;
 import com.walid.jobmatcher.repository.JobPostRepository;
-import com.cloudinary.Cloudinary;
-import com.cloudinary.utils.ObjectUtils;
+import com.walid.jobmatcher.event.ResumeChangedEvent;
+import com.walid.jobmatcher.service.BlobContent;
+import com.walid.jobmatcher.service.CandidateSkillIndex;
+import com.walid.jobmatcher.service.CandidateVectorIndex;
+import com.walid.jobmatcher.service.ResumeFileCache;
+import com.walid.jobmatcher.service.ResumeFileStorage;
+import com.walid.jobmatcher.service.ResumeIngestionService;
+import com.walid.jobmatcher.dto.ResumeIngestionDTO;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.http.MediaTypeFactory;
 
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
@@ -43,71 +56,61 @@ public class CandidateController {
     private final ResumeRepository resumeRepository;
     private final JobApplicationRepository jobApplicationRepository;
     private final JobPostRepository jobPostRepository;
-    private final Cloudinary cloudinary;
+    private final ResumeFileStorage resumeFileStorage;
+    private final ResumeIngestionService resumeIngestionService;
+    private final CandidateSkillIndex candidateSkillIndex;
+    private final CandidateVectorIndex candidateVectorIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     public CandidateController(CandidateRepository candidateRepository,
                                ResumeRepository resumeRepository,
                                JobApplicationRepository jobApplicationRepository,
                                JobPostRepository jobPostRepository,
-                               Cloudinary cloudinary) {
+                               ResumeFileStorage resumeFileStorage,
+                               ResumeIngestionService resumeIngestionService,
+                               CandidateSkillIndex candidateSkillIndex,
+                               CandidateVectorIndex candidateVectorIndex,
+                               ApplicationEventPublisher eventPublisher) {
         this.candidateRepository = candidateRepository;
         this.resumeRepository = resumeRepository;
         this.jobApplicationRepository = jobApplicationRepository;
         this.jobPostRepository = jobPostRepository;
-        this.cloudinary = cloudinary;
+        this.resumeFileStorage = resumeFileStorage;
+        this.resumeIngestionService = resumeIngestionService;
+        this.candidateSkillIndex = candidateSkillIndex;
+        this.candidateVectorIndex = candidateVectorIndex;
+        this.eventPublisher = eventPublisher;
     }
 
 
+    /**
+     * Accepts the file and answers 202 with an ingestion to poll; storage upload and
+     * parsing happen concurrently in the background. 429 when too many uploads are in progress.
+     */
     @PostMapping("/{candidateId}/upload-resume")
     public ResponseEntity<?> uploadResume(@PathVariable Long candidateId,
-                                          @RequestParam("file") MultipartFile file) {
+                                          @RequestParam("file") MultipartFile file) throws IOException {
         logger.info("Received resume upload request for candidateId: {}. File name: {}", candidateId, file.getOriginalFilename());
-        try {
-            Candidate candidate = candidateRepository.findById(candidateId)
-                    .orElseThrow(() -> new IllegalArgumentException("Candidate not found"));
-
-            // Delete old resume if it exists
-            if (candidate != null) {
-                candidate.setResume(null); // Break the association
-                candidateRepository.save(candidate);
-            }
-            resumeRepository.findByCandidateId(candidateId).ifPresent(resumeRepository::delete);
-            resumeRepository.flush();
-
-            // Save file to cloudinary
-            Map uploadResult = cloudinary.uploader().upload(file.getBytes(), ObjectUtils.asMap(
-                "resource_type", "raw",
-                "type", "upload"));
-            String url = (String) uploadResult.get("secure_url");
-            logger.info("Resume uploaded to Cloudinary for candidateId: {}. Cloudinary URL: {}", candidateId, url);
-
-            InputStreamResource resource = new InputStreamResource(file.getInputStream());
-            TikaDocumentReader reader = new TikaDocumentReader(resource);
-            List<Document> docs = reader.get();
-
-            StringBuilder sb = new StringBuilder();
-            for (Document doc : docs) {
-                if (doc.isText() && doc.getText() != null) {
-                    sb.append(doc.getText()).append("\n");
-                }
-            }
-            Resume resume = new Resume();
-            resume.setOriginalFileName(file.getOriginalFilename());
-            resume.setExtractedText(sb.toString());
-            resume.setCandidate(candidate);
-            resume.setFilePath(url);
-            resumeRepository.save(resume);
-
-            logger.info("Resume entity saved for candidateId: {}", candidateId);
-            return ResponseEntity.ok("Resume uploaded to Cloudinary and parsed successfully via Spring AI.");
-        } catch (Exception e) {
-            logger.error("Error uploading resume for candidateId: {}: {}", candidateId, e.getMessage(), e);
-            return ResponseEntity.internalServerError().body("Error: " + e.getMessage());
+        if (!candidateRepository.existsById(candidateId)) {
+            throw new IllegalArgumentException("Candidate not found");
         }
+        ResumeIngestionService.Ingestion ingestion = resumeIngestionService.submit(candidateId, file);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/candidate/" + candidateId + "/resume/ingestion/" + ingestion.getId()))
+                .body(toDto(ingestion));
     }
+
+    @GetMapping("/{candidateId}/resume/ingestion/{ingestionId}")
+    public ResponseEntity<?> getResumeIngestion(@PathVariable Long candidateId, @PathVariable String ingestionId) {
+        return resumeIngestionService.find(ingestionId)
+                .filter(ingestion -> ingestion.getCandidateId().equals(candidateId))
+                .<ResponseEntity<?>>map(ingestion -> ResponseEntity.ok(toDto(ingestion)))
+                .orElseGet(() -> ResponseEntity.status(404).body("Resume ingestion not found: " + ingestionId));
+    }
+
     @GetMapping("/{candidateId}/resume-text")
     public ResponseEntity<?> getResumeText(@PathVariable Long candidateId) {
-        return resumeRepository.findByCandidateId(candidateId)
+        return resumeRepository.findTextByCandidateId(candidateId)
                 .map(resume -> ResponseEntity.ok(resume.getExtractedText()))
                 .orElseGet(() -> ResponseEntity.status(404).body("Resume not found for candidate ID: " + candidateId));
     }
@@ -142,13 +145,20 @@ public class CandidateController {
                         candidate.setResume(null); // Break the association
                         candidateRepository.save(candidate);
                     }
-                    try {
-                        cloudinary.uploader().destroy(resume.getFilePath(), ObjectUtils.emptyMap());
-                    } catch (Exception e) {
-                        logger.error("Error deleting resume file from Cloudinary for candidateId: {}: {}", candidateId, e.getMessage(), e);
-                    }
                     resumeRepository.delete(resume);
                     resumeRepository.flush();
+                    // Checked once the row is gone: an upload reusing the file either committed
+                    // first, or no longer finds it and stores its own copy
+                    if (!resumeRepository.existsByFilePath(resume.getFilePath())) {
+                        try {
+                            resumeFileStorage.destroy(resume.getFilePath());
+                        } catch (Exception e) {
+                            logger.error("Error deleting resume file from Cloudinary for candidateId: {}: {}", candidateId, e.getMessage(), e);
+                        }
+                    }
+                    candidateSkillIndex.remove(candidateId, resume.getSkillProfile());
+                    candidateVectorIndex.remove(candidateId);
+                    eventPublisher.publishEvent(new ResumeChangedEvent(candidateId, resume.getSkillProfile(), null));
                     logger.info("Resume deleted for candidateId: {}", candidateId);
                     return ResponseEntity.ok("Resume deleted successfully.");
                 })
@@ -158,34 +168,110 @@ public class CandidateController {
                 });
     }
 
+    /**
+     * Streams the stored resume file from its blob store; Cloudinary files come from the local
+     * cache, fetched only on a miss. The ETag is the content hash: a matching If-None-Match gets 304 without
+     * touching the file, and a single byte Range gets 206.
+     */
     @GetMapping("/{candidateId}/resume/file")
-    public ResponseEntity<?> getResumeFile(@PathVariable Long candidateId) {
+    public ResponseEntity<?> getResumeFile(@PathVariable Long candidateId,
+                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                           @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                                           @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+                                           HttpServletResponse response) {
         logger.info("Received request to get resume file for candidateId: {}", candidateId);
-        return resumeRepository.findByCandidateId(candidateId)
-                .map(resume -> {
-                    String fileUrl = resume.getFilePath();
-                    if (fileUrl == null || fileUrl.isEmpty()) {
-                        logger.warn("Resume file URL not found for candidateId: {}", candidateId);
-                        return ResponseEntity.status(404).body("Resume file not found for candidate ID: " + candidateId);
-                    }
-                    try {
-                        RestTemplate restTemplate = new RestTemplate();
-                        org.springframework.http.ResponseEntity<byte[]> response = restTemplate.getForEntity(fileUrl, byte[].class);
-                        HttpHeaders headers = new HttpHeaders();
-                        headers.setContentType(response.getHeaders().getContentType());
-                        headers.setContentLength(response.getBody() != null ? response.getBody().length : 0);
-                        headers.set("Content-Disposition", "inline; filename=\"" + resume.getOriginalFileName() + "\"");
-                        logger.info("Serving resume file for candidateId: {} from Cloudinary", candidateId);
-                        return new ResponseEntity<>(response.getBody(), headers, HttpStatus.OK);
-                    } catch (Exception e) {
-                        logger.error("Error fetching resume file from Cloudinary for candidateId: {}: {}", candidateId, e.getMessage(), e);
-                        return ResponseEntity.internalServerError().body("Error fetching resume file: " + e.getMessage());
-                    }
-                })
-                .orElseGet(() -> {
-                    logger.warn("Resume not found in DB for candidateId: {}", candidateId);
-                    return ResponseEntity.status(404).body("Resume not found for candidate ID: " + candidateId);
-                });
+        Resume resume = resumeRepository.findByCandidateId(candidateId).orElse(null);
+        if (resume == null) {
+            logger.warn("Resume not found in DB for candidateId: {}", candidateId);
+            return ResponseEntity.status(404).body("Resume not found for candidate ID: " + candidateId);
+        }
+        String fileUrl = resume.getFilePath();
+        if (fileUrl == null || fileUrl.isEmpty()) {
+            logger.warn("Resume file URL not found for candidateId: {}", candidateId);
+            return ResponseEntity.status(404).body("Resume file not found for candidate ID: " + candidateId);
+        }
+        String etag = "\"" + (resume.getContentHash() != null
+                ? resume.getContentHash() : ResumeFileCache.key(fileUrl)) + "\"";
+        if (ifNoneMatch != null && matchesEtag(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        BlobContent blob;
+        try {
+            blob = resumeFileStorage.open(fileUrl);
+        } catch (NoSuchFileException e) {
+            logger.warn("Resume file missing from storage for candidateId: {}", candidateId);
+            return ResponseEntity.status(404).body("Resume file not found for candidate ID: " + candidateId);
+        } catch (IOException e) {
+            logger.error("Error fetching resume file from Cloudinary for candidateId: {}: {}", candidateId, e.getMessage(), e);
+            return ResponseEntity.internalServerError().body("Error fetching resume file: " + e.getMessage());
+        }
+        try (blob) {
+            long length = blob.size();
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaTypeFactory.getMediaType(resume.getOriginalFileName())
+                    .orElse(MediaType.APPLICATION_OCTET_STREAM));
+            headers.setContentDisposition(ContentDisposition.inline().filename(resume.getOriginalFileName()).build());
+            headers.setETag(etag);
+            headers.setCacheControl(CacheControl.noCache().cachePrivate());
+            headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+            long start = 0;
+            long end = length - 1;
+            HttpStatus status = HttpStatus.OK;
+            List<HttpRange> ranges = range != null && (ifRange == null || ifRange.equals(etag))
+                    ? parseRanges(range) : List.of();
+            if (ranges.size() == 1) {
+                start = ranges.get(0).getRangeStart(length);
+                end = ranges.get(0).getRangeEnd(length);
+                if (start >= length || start > end) {
+                    headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).headers(headers).build();
+                }
+                status = HttpStatus.PARTIAL_CONTENT;
+                headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+            headers.setContentLength(end - start + 1);
+            logger.info("Serving resume file for candidateId: {}", candidateId);
+            response.setStatus(status.value());
+            headers.forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+            transfer(blob, start, end - start + 1, response.getOutputStream());
+        } catch (IOException e) {
+            logger.warn("Resume file transfer for candidateId: {} aborted: {}", candidateId, e.getMessage());
+        }
+        // the response is already written
+        return null;
+    }
+
+    // Copies straight from the file to the response, without staging the content on the heap
+    private static void transfer(BlobContent blob, long start, long count, OutputStream out) throws IOException {
+        WritableByteChannel target = Channels.newChannel(out);
+        long position = start;
+        long end = start + count;
+        while (position < end) {
+            long sent = blob.transferTo(position, end - position, target);
+            if (sent <= 0) {
+                break;
+            }
+            position += sent;
+        }
+    }
+
+    private static boolean matchesEtag(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // A malformed Range header is ignored and the whole file sent
+    private static List<HttpRange> parseRanges(String range) {
+        try {
+            return HttpRange.parseRanges(range);
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
     }
 
     @PostMapping("/{candidateId}/apply/{jobPostId}")
@@ -224,4 +310,10 @@ public class CandidateController {
         }).toList();
         return ResponseEntity.ok(result);
     }
-}
\ No newline at end of file
+
+    private static ResumeIngestionDTO toDto(ResumeIngestionService.Ingestion ingestion) {
+        return new ResumeIngestionDTO(ingestion.getId(), ingestion.getCandidateId(), ingestion.getFileName(),
+                ingestion.getStatus().name(), ingestion.getStatus().isFinal(), ingestion.isDeduplicated(), ingestion.getError(),
+                ingestion.getSubmittedAt(), ingestion.getUpdatedAt());
+    }
+}
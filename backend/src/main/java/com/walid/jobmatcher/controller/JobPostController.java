@@ -7,9 +7,13 @@ import com.walid.jobmatcher.repository.RecruiterRepository;
 import com.walid.jobmatcher.repository.JobApplicationRepository;
 import com.walid.jobmatcher.entity.JobApplication;
 import com.walid.jobmatcher.entity.Candidate;
+import com.walid.jobmatcher.event.JobPostCreatedEvent;
+import com.walid.jobmatcher.service.JobSkillIndex;
+import com.walid.jobmatcher.service.JobVectorIndex;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -26,6 +30,9 @@ public class JobPostController {
     private final JobPostRepository jobPostRepository;
     private final RecruiterRepository recruiterRepository;
     private final JobApplicationRepository jobApplicationRepository;
+    private final JobSkillIndex jobSkillIndex;
+    private final JobVectorIndex jobVectorIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     @PostMapping
     public ResponseEntity<?> createJobPost(
@@ -38,6 +45,10 @@ public class JobPostController {
 
             jobPost.setRecruiter(recruiter);
             JobPost savedJobPost = jobPostRepository.save(jobPost);
+            jobSkillIndex.add(savedJobPost.getId(), savedJobPost.getRequiredSkills());
+            jobVectorIndex.add(savedJobPost.getId(), savedJobPost.getTitle(), savedJobPost.getDescription(),
+                    savedJobPost.getRequiredSkills());
+            eventPublisher.publishEvent(new JobPostCreatedEvent(savedJobPost.getId(), savedJobPost.getRequiredSkills()));
             logger.info("Job post created successfully: {}", savedJobPost);
             return ResponseEntity.ok(savedJobPost);
         } catch (Exception e) {
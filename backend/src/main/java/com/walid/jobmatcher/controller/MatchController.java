@@ -1,81 +1,331 @@
 package com.walid.jobmatcher.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.walid.jobmatcher.dto.BatchMatchRequest;
+import com.walid.jobmatcher.dto.BatchMatchResultDTO;
 import com.walid.jobmatcher.dto.CandidateMatchDTO;
+import com.walid.jobmatcher.dto.JobMatchDTO;
 import com.walid.jobmatcher.entity.JobPost;
-import com.walid.jobmatcher.entity.Resume;
+import com.walid.jobmatcher.entity.MatchCount;
+import com.walid.jobmatcher.matching.KeywordScorer;
+import com.walid.jobmatcher.matching.MatchMode;
+import com.walid.jobmatcher.matching.MatchScorer;
+import com.walid.jobmatcher.matching.NormalizedSkill;
+import com.walid.jobmatcher.matching.SkillHits;
+import com.walid.jobmatcher.matching.TopK;
+import com.walid.jobmatcher.repository.CandidateRepository;
+import com.walid.jobmatcher.repository.CandidateSummaryView;
 import com.walid.jobmatcher.repository.JobPostRepository;
+import com.walid.jobmatcher.repository.MatchCountRepository;
+import com.walid.jobmatcher.repository.MatchScoreRepository;
+import com.walid.jobmatcher.repository.MatchScoreView;
 import com.walid.jobmatcher.repository.ResumeRepository;
+import com.walid.jobmatcher.repository.ResumeSkillProfileView;
+import com.walid.jobmatcher.repository.ResumeTextView;
+import com.walid.jobmatcher.service.CandidateSkillIndex;
+import com.walid.jobmatcher.service.CandidateVectorIndex;
+import com.walid.jobmatcher.service.JobSkillIndex;
+import com.walid.jobmatcher.service.JobVectorIndex;
+import com.walid.jobmatcher.service.MatchResultCache;
+import com.walid.jobmatcher.service.MatchScoreMaterializer;
 import com.walid.jobmatcher.service.MatchingService;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/match")
 @RequiredArgsConstructor
 public class MatchController {
 
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    private static final String INCLUDE_RESUME_TEXT = "resumeText";
+    private static final int MAX_BATCH_JOBS = 1000;
+
     private final JobPostRepository jobPostRepository;
     private final ResumeRepository resumeRepository;
+    private final CandidateRepository candidateRepository;
     private final MatchingService matchingService;
+    private final CandidateSkillIndex candidateSkillIndex;
+    private final JobSkillIndex jobSkillIndex;
+    private final CandidateVectorIndex candidateVectorIndex;
+    private final JobVectorIndex jobVectorIndex;
+    private final MatchResultCache matchResultCache;
+    private final MatchScoreRepository matchScoreRepository;
+    private final MatchCountRepository matchCountRepository;
+    private final MatchScoreMaterializer matchScoreMaterializer;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
 
     @GetMapping("/job/{jobPostId}/candidates")
-    public ResponseEntity<List<Map<String, Object>>> matchCandidates(@PathVariable Long jobPostId) {
-        JobPost jobPost = jobPostRepository.findById(jobPostId)
-                .orElseThrow(() -> new RuntimeException("JobPost not found"));
-
-        List<Resume> allResumes = resumeRepository.findAll();
-
-        List<Map<String, Object>> matches = new ArrayList<>();
-
-        for (Resume resume : allResumes) {
-            int score = matchingService.calculateMatchScore(jobPost.getRequiredSkills(), resume.getExtractedText());
-            if (score > 0) {
-                Map<String, Object> candidateMap = new HashMap<>();
-                candidateMap.put("id", resume.getCandidate().getId());
-                candidateMap.put("email", resume.getCandidate().getEmail());
-                candidateMap.put("name", resume.getCandidate().getFullName());
-                candidateMap.put("resumeText", resume.getExtractedText());
-                candidateMap.put("matchScore", score);
-                matches.add(candidateMap);
+    public ResponseEntity<List<CandidateMatchDTO>> matchCandidates(@PathVariable Long jobPostId,
+                                                                   @RequestParam(defaultValue = "50") int limit,
+                                                                   @RequestParam(defaultValue = "0") int offset,
+                                                                   @RequestParam(defaultValue = "0") float minScore,
+                                                                   @RequestParam(defaultValue = KeywordScorer.NAME) String scorer,
+                                                                   @RequestParam(defaultValue = "keyword") String mode,
+                                                                   @RequestParam(required = false) Set<String> include) {
+        matchingService.validateWindow(offset, limit);
+        boolean includeResumeText = includesResumeText(include);
+        MatchMode matchMode = MatchMode.of(mode);
+        MatchResultCache.Key key = new MatchResultCache.Key(MatchResultCache.Direction.CANDIDATES_FOR_JOB,
+                jobPostId, matchMode, scorer, minScore, offset, limit);
+        TopK.Ranked top;
+        if (materialized(matchMode, scorer)) {
+            List<MatchScoreView> rows = matchScoreRepository.findTopCandidates(jobPostId, minScore, offset, limit);
+            if (rows.isEmpty() && !jobPostRepository.existsById(jobPostId)) {
+                throw new RuntimeException("JobPost not found");
             }
+            top = ranked(rows, minScore > 0 ? matchScoreRepository.countCandidates(jobPostId, minScore)
+                    : matchCountRepository.findTotal(MatchCount.JOB, jobPostId).orElse(0));
+        } else {
+            top = matchResultCache.get(key, k -> {
+                JobPost jobPost = jobPostRepository.findById(jobPostId)
+                        .orElseThrow(() -> new RuntimeException("JobPost not found"));
+                return rankCandidates(jobPost, matchMode, scorer, minScore, offset, limit);
+            });
         }
 
-        matches.sort((a, b) -> Integer.compare((int) b.get("matchScore"), (int) a.get("matchScore")));
+        // Only the page's candidates are read, as id/email/name projections; resume text
+        // is a second query, and only on request
+        List<Long> ids = ids(top);
+        Map<Long, CandidateSummaryView> candidates = new HashMap<>();
+        for (CandidateSummaryView candidate : candidateRepository.findSummariesByIdIn(ids)) {
+            candidates.put(candidate.getId(), candidate);
+        }
+        Map<Long, String> resumeTexts = new HashMap<>();
+        if (includeResumeText && !ids.isEmpty()) {
+            for (ResumeTextView resume : resumeRepository.findTextsByCandidateIdIn(ids)) {
+                resumeTexts.put(resume.getCandidateId(), resume.getExtractedText());
+            }
+        }
+        List<CandidateMatchDTO> matches = new ArrayList<>(top.size());
+        for (int i = 0; i < top.size(); i++) {
+            CandidateSummaryView candidate = candidates.get((long) top.ids()[i]);
+            if (candidate != null) {
+                matches.add(new CandidateMatchDTO(candidate.getId(), candidate.getEmail(),
+                        candidate.getFullName(), top.scores()[i], resumeTexts.get(candidate.getId())));
+            }
+        }
+        countResults("job-candidates", matches.size());
 
-        return ResponseEntity.ok(matches);
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(top.total()))
+                .body(matches);
     }
 
     @GetMapping("/candidate/{candidateId}/jobs")
-    public ResponseEntity<?> matchJobsForCandidate(@PathVariable Long candidateId) {
-        Resume resume = resumeRepository.findByCandidateId(candidateId)
-                .orElseThrow(() -> new RuntimeException("Resume not found for candidate"));
-
-        String resumeText = resume.getExtractedText();
-        List<JobPost> allJobs = jobPostRepository.findAll();
-
-        List<Map<String, Object>> matches = new ArrayList<>();
-        for (JobPost job : allJobs) {
-            int score = matchingService.calculateMatchScore(job.getRequiredSkills(), resumeText);
-            if (score > 0) {
-                Map<String, Object> jobMap = new HashMap<>();
-                jobMap.put("id", job.getId());
-                jobMap.put("title", job.getTitle());
-                jobMap.put("description", job.getDescription());
-                jobMap.put("requiredSkills", job.getRequiredSkills());
-                jobMap.put("matchScore", score);
-                matches.add(jobMap);
+    public ResponseEntity<List<JobMatchDTO>> matchJobsForCandidate(@PathVariable Long candidateId,
+                                                                   @RequestParam(defaultValue = "50") int limit,
+                                                                   @RequestParam(defaultValue = "0") int offset,
+                                                                   @RequestParam(defaultValue = "0") float minScore,
+                                                                   @RequestParam(defaultValue = KeywordScorer.NAME) String scorer,
+                                                                   @RequestParam(defaultValue = "keyword") String mode) {
+        matchingService.validateWindow(offset, limit);
+        MatchMode matchMode = MatchMode.of(mode);
+        MatchResultCache.Key key = new MatchResultCache.Key(MatchResultCache.Direction.JOBS_FOR_CANDIDATE,
+                candidateId, matchMode, scorer, minScore, offset, limit);
+        TopK.Ranked top;
+        if (materialized(matchMode, scorer)) {
+            List<MatchScoreView> rows = matchScoreRepository.findTopJobs(candidateId, minScore, offset, limit);
+            if (rows.isEmpty() && !resumeRepository.existsByCandidateId(candidateId)) {
+                throw new RuntimeException("Resume not found for candidate");
             }
+            top = ranked(rows, minScore > 0 ? matchScoreRepository.countJobs(candidateId, minScore)
+                    : matchCountRepository.findTotal(MatchCount.CANDIDATE, candidateId).orElse(0));
+        } else {
+            top = matchResultCache.get(key, k -> {
+                ResumeSkillProfileView resume = resumeRepository.findSkillProfileByCandidateId(candidateId)
+                        .orElseThrow(() -> new RuntimeException("Resume not found for candidate"));
+                SkillHits hits = jobHits(candidateId, resume, matchMode, scorer, matchingService.window(offset, limit));
+                return matchingService.selectTop(hits, minScore, offset, limit);
+            });
         }
-        // Sort by matchScore descending
-        matches.sort((a, b) -> Integer.compare((int) b.get("matchScore"), (int) a.get("matchScore")));
 
-        return ResponseEntity.ok(matches);
+        // Only the jobs on the requested page are loaded, skills included, in one query
+        Map<Long, JobPost> jobs = new HashMap<>();
+        for (JobPost job : jobPostRepository.findWithRequiredSkillsByIdIn(ids(top))) {
+            jobs.put(job.getId(), job);
+        }
+        List<JobMatchDTO> matches = new ArrayList<>(top.size());
+        for (int i = 0; i < top.size(); i++) {
+            JobPost job = jobs.get((long) top.ids()[i]);
+            if (job != null) {
+                matches.add(new JobMatchDTO(job.getId(), job.getTitle(), job.getDescription(),
+                        job.getRequiredSkills(), top.scores()[i]));
+            }
+        }
+        countResults("candidate-jobs", matches.size());
+
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(top.total()))
+                .body(matches);
+    }
+
+    /**
+     * Top candidates for many jobs in one request, streamed as one JSON line per job in
+     * request order. Jobs are loaded in one query and each distinct skill is normalized
+     * once for the whole batch; candidateIds, if given, restricts every ranking to them.
+     */
+    @PostMapping(value = "/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> matchBatch(@RequestBody BatchMatchRequest request) {
+        List<Long> jobIds = request.getJobIds();
+        if (jobIds == null || jobIds.isEmpty() || jobIds.size() > MAX_BATCH_JOBS) {
+            throw new IllegalArgumentException("jobIds must list between 1 and " + MAX_BATCH_JOBS + " jobs");
+        }
+        int limit = request.getLimit();
+        float minScore = request.getMinScore();
+        matchingService.validateWindow(0, limit);
+        MatchScorer scorer = matchingService.scorer(request.getScorer());
+
+        // Unknown ids are rejected before the first line is written
+        Map<Long, JobPost> jobs = new HashMap<>();
+        for (JobPost job : jobPostRepository.findWithRequiredSkillsByIdIn(jobIds)) {
+            jobs.put(job.getId(), job);
+        }
+        List<Long> missing = jobIds.stream().filter(id -> !jobs.containsKey(id)).distinct().toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("Job posts not found: " + missing);
+        }
+        List<Long> candidateIds = request.getCandidateIds();
+        if (candidateIds != null && candidateIds.stream().anyMatch(id -> id == null || id != id.intValue())) {
+            throw new IllegalArgumentException("candidateIds must be non-null candidate ids");
+        }
+        int[] candidateFilter = candidateIds == null ? null
+                : candidateIds.stream().mapToInt(Long::intValue).sorted().distinct().toArray();
+
+        StreamingResponseBody body = out -> {
+            Map<String, NormalizedSkill> normalized = new HashMap<>();
+            for (Long jobId : new LinkedHashSet<>(jobIds)) {
+                List<NormalizedSkill> requiredSkills = jobs.get(jobId).getRequiredSkills().stream()
+                        .map(skill -> normalized.computeIfAbsent(skill, matchingService::normalize))
+                        .toList();
+                TopK.Ranked top = candidateFilter == null
+                        ? matchingService.selectTop(candidateSkillIndex.query(requiredSkills, scorer), minScore, 0, limit)
+                        : matchingService.selectTop(candidateSkillIndex.match(requiredSkills, scorer).retain(candidateFilter),
+                                minScore, 0, limit);
+                List<BatchMatchResultDTO.ScoredCandidate> candidates = new ArrayList<>(top.size());
+                for (int i = 0; i < top.size(); i++) {
+                    candidates.add(new BatchMatchResultDTO.ScoredCandidate((long) top.ids()[i], top.scores()[i]));
+                }
+                countResults("batch", candidates.size());
+                out.write(objectMapper.writeValueAsBytes(new BatchMatchResultDTO(jobId, top.total(), candidates)));
+                out.write('\n');
+                out.flush();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/materialized/status")
+    public ResponseEntity<MatchScoreMaterializer.Status> materializedStatus() {
+        return ResponseEntity.ok(matchScoreMaterializer.status());
+    }
+
+    // Keyword rankings come straight from match_scores when it is maintained; other modes
+    // and scorers are still ranked in memory
+    private boolean materialized(MatchMode mode, String scorer) {
+        return mode == MatchMode.KEYWORD && matchScoreMaterializer.serves(scorer);
+    }
+
+    private void countResults(String endpoint, int matches) {
+        meterRegistry.counter("match.results", "endpoint", endpoint).increment(matches);
+    }
+
+    // Every row has a positive score, so without a minimum the stored total is the ranking's;
+    // a minimum score is counted over the rows it keeps
+    private static TopK.Ranked ranked(List<MatchScoreView> rows, long total) {
+        int[] ids = new int[rows.size()];
+        float[] scores = new float[rows.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = Math.toIntExact(rows.get(i).getSubjectId());
+            scores[i] = rows.get(i).getScore();
+        }
+        return new TopK.Ranked(ids, scores,
+                Math.toIntExact(total));
+    }
+
+    // Keyword ranking scores the candidate pool in chunks; semantic search only needs
+    // as many neighbours as the page reaches
+    private TopK.Ranked rankCandidates(JobPost jobPost, MatchMode mode, String scorer,
+                                       float minScore, int offset, int limit) {
+        int window = matchingService.window(offset, limit);
+        List<NormalizedSkill> requiredSkills = matchingService.normalize(jobPost.getRequiredSkills());
+        return switch (mode) {
+            case KEYWORD -> matchingService.selectTop(
+                    candidateSkillIndex.query(requiredSkills, matchingService.scorer(scorer)), minScore, offset, limit);
+            case SEMANTIC -> matchingService.selectTop(
+                    candidateVectorIndex.nearest(jobEmbedding(jobPost), window), minScore, offset, limit);
+            case HYBRID -> {
+                float[] query = jobEmbedding(jobPost);
+                SkillHits keyword = candidateSkillIndex.match(requiredSkills, matchingService.scorer(scorer));
+                SkillHits blended = matchingService.blend(keyword, candidateVectorIndex.nearest(query, window),
+                        id -> candidateVectorIndex.similarity(query, (long) id));
+                yield matchingService.selectTop(blended, minScore, offset, limit);
+            }
+        };
+    }
+
+    private SkillHits jobHits(Long candidateId, ResumeSkillProfileView resume, MatchMode mode, String scorer, int window) {
+        return switch (mode) {
+            case KEYWORD -> jobSkillIndex.match(skillProfile(resume), matchingService.scorer(scorer));
+            case SEMANTIC -> jobVectorIndex.nearest(resumeEmbedding(candidateId), window);
+            case HYBRID -> {
+                float[] query = resumeEmbedding(candidateId);
+                SkillHits keyword = jobSkillIndex.match(skillProfile(resume), matchingService.scorer(scorer));
+                yield matchingService.blend(keyword, jobVectorIndex.nearest(query, window),
+                        id -> jobVectorIndex.similarity(query, (long) id));
+            }
+        };
+    }
+
+    private float[] jobEmbedding(JobPost jobPost) {
+        return jobVectorIndex.embedding(jobPost.getId(), jobPost.getTitle(), jobPost.getDescription(),
+                jobPost.getRequiredSkills());
+    }
+
+    // The text is read only when the candidate is missing from the vector index
+    private float[] resumeEmbedding(Long candidateId) {
+        float[] embedding = candidateVectorIndex.embedding(candidateId);
+        return embedding != null ? embedding : candidateVectorIndex.embed(resumeText(candidateId));
+    }
+
+    // Resumes not yet reached by the backfill are profiled on the fly
+    private Set<String> skillProfile(ResumeSkillProfileView resume) {
+        Set<String> skillProfile = resume.getSkillProfile();
+        return skillProfile != null ? skillProfile : matchingService.buildSkillProfile(resumeText(resume.getCandidateId()));
+    }
+
+    private String resumeText(Long candidateId) {
+        return resumeRepository.findTextByCandidateId(candidateId).map(ResumeTextView::getExtractedText).orElse(null);
+    }
+
+    // ?include= opts into heavier fields; unknown names are rejected rather than ignored
+    private static boolean includesResumeText(Set<String> include) {
+        if (include == null) return false;
+        for (String requested : include) {
+            if (!requested.equals(INCLUDE_RESUME_TEXT)) {
+                throw new IllegalArgumentException("Unknown include: " + requested + ". Available: [" + INCLUDE_RESUME_TEXT + "]");
+            }
+        }
+        return !include.isEmpty();
+    }
+
+    private static List<Long> ids(TopK.Ranked top) {
+        List<Long> ids = new ArrayList<>(top.size());
+        for (int id : top.ids()) {
+            ids.add((long) id);
+        }
+        return ids;
     }
 }
@@ -0,0 +1,61 @@
+package com.walid.jobmatcher.controller;
+
+import com.walid.jobmatcher.dto.ResumeImportDTO;
+import com.walid.jobmatcher.service.ResumeImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * Bulk resume imports for administrators (see {@code security.admin-emails}). Both endpoints
+ * answer 202 with an import to poll; 429 while another import is running.
+ */
+@RestController
+@RequestMapping("/api/admin/resume-imports")
+public class ResumeImportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResumeImportController.class);
+    private final ResumeImportService resumeImportService;
+
+    public ResumeImportController(ResumeImportService resumeImportService) {
+        this.resumeImportService = resumeImportService;
+    }
+
+    // The zip is the raw request body, so it is not subject to the multipart size limit
+    @PostMapping(consumes = {"application/zip", "application/octet-stream"})
+    public ResponseEntity<?> importArchive(HttpServletRequest request, Authentication authentication) throws IOException {
+        logger.info("Resume import of an archive requested by {}", authentication.getName());
+        return accepted(resumeImportService.importArchive(request.getInputStream()));
+    }
+
+    @PostMapping("/directory")
+    public ResponseEntity<?> importDirectory(@RequestParam String path, Authentication authentication) throws IOException {
+        logger.info("Resume import of directory {} requested by {}", path, authentication.getName());
+        return accepted(resumeImportService.importDirectory(path));
+    }
+
+    @GetMapping("/{importId}")
+    public ResponseEntity<?> getImport(@PathVariable String importId) {
+        return resumeImportService.find(importId)
+                .<ResponseEntity<?>>map(job -> ResponseEntity.ok(toDto(job)))
+                .orElseGet(() -> ResponseEntity.status(404).body("Resume import not found: " + importId));
+    }
+
+    private static ResponseEntity<?> accepted(ResumeImportService.ImportJob job) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/admin/resume-imports/" + job.getId()))
+                .body(toDto(job));
+    }
+
+    private static ResumeImportDTO toDto(ResumeImportService.ImportJob job) {
+        return new ResumeImportDTO(job.getId(), job.getSource(), job.getStatus().name(), job.getTotal(),
+                job.getImported(), job.getDeduplicated(), job.getFailed(), job.getBytesRead(),
+                job.getDocumentsPerSecond(), job.getError(), job.getErrors(), job.getStartedAt(), job.getFinishedAt());
+    }
+}
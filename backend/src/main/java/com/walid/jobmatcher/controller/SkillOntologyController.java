@@ -0,0 +1,28 @@
+package com.walid.jobmatcher.controller;
+
+import com.walid.jobmatcher.matching.SkillOntology;
+import com.walid.jobmatcher.service.SkillOntologyService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+// Skill ontology administration, restricted to security.admin-emails
+@RestController
+@RequestMapping("/api/admin/ontology")
+@RequiredArgsConstructor
+public class SkillOntologyController {
+
+    private final SkillOntologyService skillOntologyService;
+
+    // Recompiles the skill ontology file; matches already running keep the previous one
+    @PostMapping("/reload")
+    public ResponseEntity<Map<String, Integer>> reload() {
+        SkillOntology ontology = skillOntologyService.reload();
+        return ResponseEntity.ok(Map.of("canonicalSkills", ontology.canonicalSkills(),
+                "surfaceForms", ontology.surfaceForms()));
+    }
+}
@@ -0,0 +1,18 @@
+package com.walid.jobmatcher.dto;
+
+import com.walid.jobmatcher.matching.KeywordScorer;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class BatchMatchRequest {
+    private List<Long> jobIds;
+    // null ranks the whole candidate pool
+    private List<Long> candidateIds;
+    private int limit = 50;
+    private float minScore = 0;
+    private String scorer = KeywordScorer.NAME;
+}
@@ -0,0 +1,23 @@
+package com.walid.jobmatcher.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+// One line of a /api/match/batch response: the top candidates of one job
+@Getter
+@Setter
+@AllArgsConstructor
+public class BatchMatchResultDTO {
+    private Long jobId;
+    private int total;
+    private List<ScoredCandidate> candidates;
+
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    public static class ScoredCandidate {
+        private Long id;
+        private float matchScore;
+    }
+}
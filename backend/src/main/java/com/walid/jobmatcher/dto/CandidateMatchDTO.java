@@ -1,12 +1,17 @@
 package com.walid.jobmatcher.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 
 @Getter
 @Setter
 @AllArgsConstructor
 public class CandidateMatchDTO {
-    private Long candidateId;
-    private String candidateEmail;
-    private int matchScore;
+    private Long id;
+    private String email;
+    private String name;
+    private float matchScore;
+    // only with ?include=resumeText
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String resumeText;
 }
@@ -0,0 +1,16 @@
+package com.walid.jobmatcher.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class JobMatchDTO {
+    private Long id;
+    private String title;
+    private String description;
+    private List<String> requiredSkills;
+    private float matchScore;
+}
@@ -0,0 +1,26 @@
+package com.walid.jobmatcher.dto;
+
+import lombok.*;
+
+import java.time.Instant;
+import java.util.List;
+
+// Progress and throughput of a bulk resume import, polled until status is not RUNNING
+@Getter
+@Setter
+@AllArgsConstructor
+public class ResumeImportDTO {
+    private String id;
+    private String source;
+    private String status;
+    private int total;
+    private int imported;
+    private int deduplicated;
+    private int failed;
+    private long bytesRead;
+    private double documentsPerSecond;
+    private String error;
+    private List<String> errors;
+    private Instant startedAt;
+    private Instant finishedAt;
+}
@@ -0,0 +1,22 @@
+package com.walid.jobmatcher.dto;
+
+import lombok.*;
+
+import java.time.Instant;
+
+// Progress of an asynchronous resume upload, polled until status is final
+@Getter
+@Setter
+@AllArgsConstructor
+public class ResumeIngestionDTO {
+    private String id;
+    private Long candidateId;
+    private String fileName;
+    private String status;
+    private boolean done;
+    // the file matched a stored resume, so its upload and text extraction were skipped
+    private boolean deduplicated;
+    private String error;
+    private Instant submittedAt;
+    private Instant updatedAt;
+}
@@ -0,0 +1,52 @@
+package com.walid.jobmatcher.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Stores text as its UTF-8 length followed by one LZ4 block of the UTF-8 bytes
+@Converter
+public class CompressedTextConverter implements AttributeConverter<String, byte[]> {
+
+    private static final LZ4Factory LZ4 = LZ4Factory.fastestInstance();
+
+    @Override
+    public byte[] convertToDatabaseColumn(String text) {
+        if (text == null) return null;
+        return compress(text);
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] column) {
+        if (column == null) return null;
+        return decompress(column);
+    }
+
+    public static byte[] compress(String text) {
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        LZ4Compressor compressor = LZ4.fastCompressor();
+        byte[] column = new byte[Integer.BYTES + compressor.maxCompressedLength(utf8.length)];
+        ByteBuffer.wrap(column).putInt(utf8.length);
+        int length = compressor.compress(utf8, 0, utf8.length, column, Integer.BYTES);
+        return Arrays.copyOf(column, Integer.BYTES + length);
+    }
+
+    public static String decompress(byte[] column) {
+        if (column.length < Integer.BYTES) {
+            throw new IllegalArgumentException("Compressed text is truncated");
+        }
+        int length = ByteBuffer.wrap(column).getInt();
+        byte[] utf8 = new byte[length];
+        LZ4SafeDecompressor decompressor = LZ4.safeDecompressor();
+        if (decompressor.decompress(column, Integer.BYTES, column.length - Integer.BYTES, utf8, 0) != length) {
+            throw new IllegalArgumentException("Compressed text does not match its recorded length");
+        }
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
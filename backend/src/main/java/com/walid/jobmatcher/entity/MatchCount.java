@@ -0,0 +1,40 @@
+package com.walid.jobmatcher.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+// The number of match_scores rows a job or candidate has, kept by MatchScoreMaterializer in
+// the same transaction as the rows, so a ranking's total is read instead of counted
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@IdClass(MatchCount.Key.class)
+@Table(name = "match_counts")
+public class MatchCount {
+
+    public static final String JOB = "job";
+    public static final String CANDIDATE = "candidate";
+
+    @Id
+    @Column(name = "subject_type", length = 16)
+    private String subjectType;
+
+    @Id
+    @Column(name = "subject_id")
+    private Long subjectId;
+
+    @Column(nullable = false)
+    private int total;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String subjectType;
+        private Long subjectId;
+    }
+}
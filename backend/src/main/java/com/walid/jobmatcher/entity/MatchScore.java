@@ -0,0 +1,40 @@
+package com.walid.jobmatcher.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+// One precomputed keyword score per (job, resume) pair with at least one skill in common,
+// maintained by MatchScoreMaterializer. No foreign keys: rows are rewritten wholesale.
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@IdClass(MatchScore.Key.class)
+@Table(name = "match_scores", indexes = {
+    @Index(name = "idx_match_scores_job_score", columnList = "job_id, score desc, candidate_id"),
+    @Index(name = "idx_match_scores_candidate_score", columnList = "candidate_id, score desc, job_id")
+})
+public class MatchScore {
+
+    @Id
+    @Column(name = "job_id")
+    private Long jobId;
+
+    @Id
+    @Column(name = "candidate_id")
+    private Long candidateId;
+
+    @Column(nullable = false)
+    private float score;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long jobId;
+        private Long candidateId;
+    }
+}
@@ -4,25 +4,46 @@ import jakarta.persistence.*;
 import lombok.*;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import java.util.Set;
+
 @Getter
 @Setter
 @Entity
-@Table(name = "resumes")
+@Table(name = "resumes", indexes = {
+        @Index(name = "idx_resumes_content_hash", columnList = "contentHash"),
+        @Index(name = "idx_resumes_file_path", columnList = "filePath")
+})
 public class Resume {
 
+    // A sequence, unlike IDENTITY, lets Hibernate batch inserts (see ResumeImportService)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "resumes_seq")
+    @SequenceGenerator(name = "resumes_seq", sequenceName = "resumes_seq", allocationSize = 50)
     private Long id;
 
     private String originalFileName;
 
-    @Column(columnDefinition = "text")
+    // LZ4-compressed and loaded on first access, so loading a Resume skips the largest column
+    @Basic(fetch = FetchType.LAZY)
+    @Column(name = "extracted_text_lz4", columnDefinition = "bytea")
+    @Convert(converter = CompressedTextConverter.class)
+    @JsonIgnore
     private String extractedText;
 
+    // Deduplicated, lower-cased 1..3-gram terms of extractedText, built at upload time
+    @Column(columnDefinition = "text")
+    @Convert(converter = SkillProfileConverter.class)
+    @JsonIgnore
+    private Set<String> skillProfile;
+
     @OneToOne
     @JoinColumn(name = "candidate_id")
     @JsonIgnore
     private Candidate candidate;
 
     private String filePath;
+
+    // Hex SHA-256 of the uploaded file; uploads with the same hash reuse filePath and extractedText
+    @Column(length = 64)
+    private String contentHash;
 }
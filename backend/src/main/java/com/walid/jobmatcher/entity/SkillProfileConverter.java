@@ -0,0 +1,26 @@
+package com.walid.jobmatcher.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Stores a skill profile as its sorted terms, one per line
+@Converter
+public class SkillProfileConverter implements AttributeConverter<Set<String>, String> {
+
+    @Override
+    public String convertToDatabaseColumn(Set<String> terms) {
+        if (terms == null) return null;
+        return String.join("\n", new TreeSet<>(terms));
+    }
+
+    @Override
+    public Set<String> convertToEntityAttribute(String column) {
+        if (column == null) return null;
+        if (column.isEmpty()) return Set.of();
+        return Set.copyOf(Arrays.asList(column.split("\n")));
+    }
+}
@@ -0,0 +1,9 @@
+package com.walid.jobmatcher.event;
+
+import java.util.List;
+
+/**
+ * A job post was saved and added to the job indexes.
+ */
+public record JobPostCreatedEvent(Long jobId, List<String> requiredSkills) {
+}
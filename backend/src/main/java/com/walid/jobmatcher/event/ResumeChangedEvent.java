@@ -0,0 +1,10 @@
+package com.walid.jobmatcher.event;
+
+import java.util.Set;
+
+/**
+ * A candidate's resume was uploaded, replaced or deleted. Profiles are null when there
+ * was no resume before, or is none after.
+ */
+public record ResumeChangedEvent(Long candidateId, Set<String> previousProfile, Set<String> currentProfile) {
+}
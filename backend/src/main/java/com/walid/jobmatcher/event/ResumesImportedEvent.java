@@ -0,0 +1,10 @@
+package com.walid.jobmatcher.event;
+
+import java.util.List;
+
+/**
+ * A bulk import wrote resumes for these candidates without updating the indexes one by one;
+ * the candidate indexes are rebuilt once in response.
+ */
+public record ResumesImportedEvent(List<Long> candidateIds) {
+}
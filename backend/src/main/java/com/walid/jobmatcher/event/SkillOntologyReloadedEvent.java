@@ -0,0 +1,7 @@
+package com.walid.jobmatcher.event;
+
+/**
+ * A new skill ontology replaced the previous one; job skills normalize differently from now on.
+ */
+public record SkillOntologyReloadedEvent(int canonicalSkills, int surfaceForms) {
+}
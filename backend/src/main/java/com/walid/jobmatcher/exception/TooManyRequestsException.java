@@ -0,0 +1,18 @@
+package com.walid.jobmatcher.exception;
+
+import java.time.Duration;
+
+// Work refused because a bounded queue is full; answered with 429 and Retry-After
+public class TooManyRequestsException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public TooManyRequestsException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
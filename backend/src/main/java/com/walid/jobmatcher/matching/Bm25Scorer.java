@@ -0,0 +1,46 @@
+package com.walid.jobmatcher.matching;
+
+/**
+ * Okapi BM25 over skill profiles. Profiles are term sets, so every matched term has
+ * a frequency of one and a document's score is
+ * {@code sum(idf) * (k1 + 1) / (1 + k1 * (1 - b + b * length / averageLength))}.
+ * Rare skills therefore outweigh common ones and long, keyword-stuffed resumes are damped.
+ */
+public final class Bm25Scorer implements MatchScorer {
+
+    public static final String NAME = "bm25";
+
+    private final CorpusStatistics statistics;
+    private final float k1;
+    private final float b;
+
+    public Bm25Scorer(CorpusStatistics statistics, float k1, float b) {
+        this.statistics = statistics;
+        this.k1 = k1;
+        this.b = b;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public float skillWeight(NormalizedSkill skill) {
+        if (skill.terms().isEmpty()) return 0f;
+        // a multi-window skill is at most as common as its rarest window
+        int df = Integer.MAX_VALUE;
+        for (String term : skill.terms()) {
+            df = Math.min(df, statistics.documentFrequency(term));
+        }
+        int n = statistics.documentCount();
+        return (float) Math.log(1 + (n - df + 0.5) / (df + 0.5));
+    }
+
+    @Override
+    public float score(float matchedWeight, int documentLength) {
+        double averageLength = statistics.averageDocumentLength();
+        double lengthRatio = averageLength > 0 ? documentLength / averageLength : 1;
+        return (float) (matchedWeight * (k1 + 1) / (1 + k1 * (1 - b + b * lengthRatio)));
+    }
+}
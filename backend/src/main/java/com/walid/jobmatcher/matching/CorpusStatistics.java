@@ -0,0 +1,14 @@
+package com.walid.jobmatcher.matching;
+
+/**
+ * Collection statistics a {@link MatchScorer} may weight skills with.
+ * Implementations keep them current as documents come and go.
+ */
+public interface CorpusStatistics {
+
+    int documentCount();
+
+    int documentFrequency(String term);
+
+    double averageDocumentLength();
+}
@@ -0,0 +1,124 @@
+package com.walid.jobmatcher.matching;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Deterministic, offline text embedder: hashed word, word-pair and character-trigram
+ * features, each projected onto a seeded random {@code +-1} direction and summed, then
+ * L2-normalized so that a dot product is the cosine similarity.
+ * <p>
+ * The projection row of a feature is derived from its hash, so no matrix is stored
+ * and any feature, seen before or not, lands in the same space. Trigrams let
+ * inflections and spelling variants ({@code postgres}, {@code postgresql}) land close
+ * together. Similarity is still lexical: synonyms sharing no characters stay apart.
+ */
+public final class HashingEmbedder {
+
+    // sub-word features share one unit of weight per token, so long tokens don't dominate
+    private static final float TRIGRAM_WEIGHT = 1f;
+    private static final float WORD_WEIGHT = 1f;
+    private static final float PAIR_WEIGHT = 0.5f;
+    // function words carry no meaning but would dominate short texts
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "has", "have", "i", "in", "is",
+            "it", "my", "of", "on", "or", "our", "s", "that", "the", "to", "was", "we", "were", "with");
+
+    private final int dimensions;
+    private final long seed;
+
+    public HashingEmbedder(int dimensions, long seed) {
+        if (dimensions < 1) throw new IllegalArgumentException("dimensions must be positive");
+        this.dimensions = dimensions;
+        this.seed = seed;
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    /**
+     * The unit-length embedding of the text; all zeros when the text has no tokens.
+     */
+    public float[] embed(String text) {
+        float[] vector = new float[dimensions];
+        if (text == null || text.isBlank()) return vector;
+
+        Map<String, Float> features = new HashMap<>();
+        for (List<String> words : SkillTokenizer.phrases(text)) {
+            List<String> phrase = words.stream().filter(word -> !STOP_WORDS.contains(word)).toList();
+            for (int i = 0; i < phrase.size(); i++) {
+                String token = phrase.get(i);
+                features.merge("w:" + token, WORD_WEIGHT, Float::sum);
+                if (i + 1 < phrase.size()) {
+                    features.merge("p:" + token + ' ' + phrase.get(i + 1), PAIR_WEIGHT, Float::sum);
+                }
+                String bounded = '<' + token + '>';
+                int trigrams = bounded.length() - 2;
+                for (int j = 0; j < trigrams; j++) {
+                    features.merge("t:" + bounded.substring(j, j + 3), TRIGRAM_WEIGHT / trigrams, Float::sum);
+                }
+            }
+        }
+        // sublinear term frequency, so repeating a word has diminishing effect
+        features.forEach((feature, frequency) -> project(feature, (float) Math.sqrt(frequency), vector));
+        normalize(vector);
+        return vector;
+    }
+
+    public static float dot(float[] a, float[] b) {
+        float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        for (int n = a.length & ~3; i < n; i += 4) {
+            s0 += a[i] * b[i];
+            s1 += a[i + 1] * b[i + 1];
+            s2 += a[i + 2] * b[i + 2];
+            s3 += a[i + 3] * b[i + 3];
+        }
+        for (; i < a.length; i++) {
+            s0 += a[i] * b[i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    private void project(String feature, float weight, float[] vector) {
+        long state = hash(feature) ^ seed;
+        long bits = 0;
+        for (int d = 0; d < dimensions; d++) {
+            if ((d & 63) == 0) {
+                state += 0x9E3779B97F4A7C15L;
+                bits = mix(state);
+            }
+            vector[d] += (bits & 1) == 0 ? weight : -weight;
+            bits >>>= 1;
+        }
+    }
+
+    private static void normalize(float[] vector) {
+        double norm = Math.sqrt(dot(vector, vector));
+        if (norm == 0) return;
+        float scale = (float) (1 / norm);
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= scale;
+        }
+    }
+
+    // 64-bit FNV-1a; String.hashCode has too few bits for the projection seed
+    private static long hash(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,369 @@
+package com.walid.jobmatcher.matching;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Approximate nearest-neighbour index over unit vectors (Malkov and Yashunin's
+ * Hierarchical Navigable Small World graph), ranking by cosine similarity.
+ * <p>
+ * Removing or re-adding a document tombstones its node: the node still routes
+ * searches but is never returned. Once tombstones outnumber live nodes, rebuild
+ * with {@link #compact()}. Searches run concurrently; writes take an exclusive lock
+ * because they rewrite neighbour lists in place.
+ */
+public final class HnswIndex {
+
+    public record Settings(int m, int efConstruction, int efSearch) {
+        public Settings {
+            if (m < 2) throw new IllegalArgumentException("m must be at least 2");
+            if (efConstruction < 1 || efSearch < 1) throw new IllegalArgumentException("ef must be positive");
+        }
+    }
+
+    private final Settings settings;
+    private final double levelMultiplier;
+    private final Random random = new Random(42);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final List<Node> nodes = new ArrayList<>();
+    private final Map<Integer, Integer> nodeByDocument = new HashMap<>();
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+    private int deleted;
+
+    private static final class Node {
+        final int documentId;
+        final float[] vector;
+        final int[][] neighbors;
+        final int[] degree;
+        boolean deleted;
+
+        Node(int documentId, float[] vector, int level, int m) {
+            this.documentId = documentId;
+            this.vector = vector;
+            this.neighbors = new int[level + 1][];
+            this.degree = new int[level + 1];
+            for (int l = 0; l <= level; l++) {
+                neighbors[l] = new int[maxDegree(l, m)];
+            }
+        }
+    }
+
+    public HnswIndex(Settings settings) {
+        this.settings = settings;
+        this.levelMultiplier = 1 / Math.log(settings.m());
+    }
+
+    /**
+     * Indexes the vector under the document id, replacing any earlier vector. The
+     * vector must be unit length and is kept by reference.
+     */
+    public void add(int documentId, float[] vector) {
+        lock.writeLock().lock();
+        try {
+            tombstone(documentId);
+            int level = (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier);
+            int node = nodes.size();
+            nodes.add(new Node(documentId, vector, level, settings.m()));
+            nodeByDocument.put(documentId, node);
+            if (entryPoint < 0) {
+                entryPoint = node;
+                maxLevel = level;
+                return;
+            }
+
+            int nearest = entryPoint;
+            for (int l = maxLevel; l > level; l--) {
+                nearest = greedyClosest(vector, nearest, l);
+            }
+            for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+                NodeQueue found = searchLayer(vector, nearest, settings.efConstruction(), l);
+                int[] candidates = found.drainBestFirst();
+                nearest = candidates[0];
+                for (int neighbor : selectNeighbors(vector, candidates, maxDegree(l, settings.m()))) {
+                    link(node, neighbor, l);
+                    link(neighbor, node, l);
+                }
+            }
+            if (level > maxLevel) {
+                maxLevel = level;
+                entryPoint = node;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int documentId) {
+        lock.writeLock().lock();
+        try {
+            tombstone(documentId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The {@code k} documents most similar to the query, approximately, with their
+     * cosine similarities, ordered by document id.
+     */
+    public SkillHits search(float[] query, int k) {
+        if (k <= 0) return SkillHits.NONE;
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0 || size() == 0) return SkillHits.NONE;
+            int nearest = entryPoint;
+            for (int l = maxLevel; l > 0; l--) {
+                nearest = greedyClosest(query, nearest, l);
+            }
+            // widen the beam by the tombstones it is likely to run into
+            int ef = (int) Math.min(nodes.size(), (long) Math.max(settings.efSearch(), k) * nodes.size() / size());
+            TopK best = new TopK(k);
+            for (int node : searchLayer(query, nearest, ef, 0).drainBestFirst()) {
+                Node n = nodes.get(node);
+                if (!n.deleted) {
+                    best.offer(n.documentId, HashingEmbedder.dot(query, n.vector));
+                }
+            }
+            return byDocumentId(best.ranked(0));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Exact similarity to one document, NaN when it is not indexed
+    public float similarity(float[] query, int documentId) {
+        float[] vector = vector(documentId);
+        return vector == null ? Float.NaN : HashingEmbedder.dot(query, vector);
+    }
+
+    // The indexed vector, shared and not to be modified, or null
+    public float[] vector(int documentId) {
+        lock.readLock().lock();
+        try {
+            Integer node = nodeByDocument.get(documentId);
+            return node == null ? null : nodes.get(node).vector;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        return nodeByDocument.size();
+    }
+
+    public int deletedCount() {
+        return deleted;
+    }
+
+    // A fresh graph over the live documents only
+    public HnswIndex compact() {
+        lock.readLock().lock();
+        try {
+            HnswIndex compacted = new HnswIndex(settings);
+            for (Node node : nodes) {
+                if (!node.deleted) {
+                    compacted.add(node.documentId, node.vector);
+                }
+            }
+            return compacted;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void tombstone(int documentId) {
+        Integer previous = nodeByDocument.remove(documentId);
+        if (previous != null) {
+            nodes.get(previous).deleted = true;
+            deleted++;
+        }
+    }
+
+    private int greedyClosest(float[] query, int start, int level) {
+        int current = start;
+        float currentSimilarity = HashingEmbedder.dot(query, nodes.get(current).vector);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            Node node = nodes.get(current);
+            for (int i = 0; i < node.degree[level]; i++) {
+                int neighbor = node.neighbors[level][i];
+                float similarity = HashingEmbedder.dot(query, nodes.get(neighbor).vector);
+                if (similarity > currentSimilarity) {
+                    current = neighbor;
+                    currentSimilarity = similarity;
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    // Beam search of one layer; returns up to ef nodes, worst at the head
+    private NodeQueue searchLayer(float[] query, int start, int ef, int level) {
+        BitSet visited = new BitSet();
+        NodeQueue candidates = new NodeQueue(false);
+        NodeQueue results = new NodeQueue(true);
+        float startSimilarity = HashingEmbedder.dot(query, nodes.get(start).vector);
+        visited.set(start);
+        candidates.push(start, startSimilarity);
+        results.push(start, startSimilarity);
+        while (candidates.size() > 0) {
+            float similarity = candidates.peekSimilarity();
+            int current = candidates.pop();
+            if (results.size() >= ef && similarity < results.peekSimilarity()) break;
+            Node node = nodes.get(current);
+            for (int i = 0; i < node.degree[level]; i++) {
+                int neighbor = node.neighbors[level][i];
+                if (visited.get(neighbor)) continue;
+                visited.set(neighbor);
+                float neighborSimilarity = HashingEmbedder.dot(query, nodes.get(neighbor).vector);
+                if (results.size() < ef || neighborSimilarity > results.peekSimilarity()) {
+                    candidates.push(neighbor, neighborSimilarity);
+                    results.push(neighbor, neighborSimilarity);
+                    if (results.size() > ef) results.pop();
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * The paper's neighbour-selection heuristic: a candidate is kept only if it is closer
+     * to the base than to every neighbour kept so far, which spreads links across
+     * clusters. Free slots are then filled with the closest pruned candidates.
+     */
+    private int[] selectNeighbors(float[] base, int[] candidatesBestFirst, int max) {
+        int[] selected = new int[Math.min(max, candidatesBestFirst.length)];
+        boolean[] taken = new boolean[candidatesBestFirst.length];
+        int count = 0;
+        for (int i = 0; i < candidatesBestFirst.length && count < selected.length; i++) {
+            float[] candidate = nodes.get(candidatesBestFirst[i]).vector;
+            float toBase = HashingEmbedder.dot(base, candidate);
+            boolean diverse = true;
+            for (int j = 0; j < count && diverse; j++) {
+                diverse = toBase > HashingEmbedder.dot(candidate, nodes.get(selected[j]).vector);
+            }
+            if (diverse) {
+                selected[count++] = candidatesBestFirst[i];
+                taken[i] = true;
+            }
+        }
+        for (int i = 0; i < candidatesBestFirst.length && count < selected.length; i++) {
+            if (!taken[i]) selected[count++] = candidatesBestFirst[i];
+        }
+        return selected;
+    }
+
+    private void link(int from, int to, int level) {
+        Node node = nodes.get(from);
+        int[] list = node.neighbors[level];
+        if (node.degree[level] < list.length) {
+            list[node.degree[level]++] = to;
+            return;
+        }
+        // full: re-select among the current neighbours plus the new one
+        NodeQueue pool = new NodeQueue(true);
+        for (int i = 0; i < list.length; i++) {
+            pool.push(list[i], HashingEmbedder.dot(node.vector, nodes.get(list[i]).vector));
+        }
+        pool.push(to, HashingEmbedder.dot(node.vector, nodes.get(to).vector));
+        int[] kept = selectNeighbors(node.vector, pool.drainBestFirst(), list.length);
+        System.arraycopy(kept, 0, list, 0, kept.length);
+        node.degree[level] = kept.length;
+    }
+
+    private static int maxDegree(int level, int m) {
+        return level == 0 ? 2 * m : m;
+    }
+
+    private static SkillHits byDocumentId(TopK.Ranked ranked) {
+        Integer[] order = new Integer[ranked.size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Integer.compare(ranked.ids()[a], ranked.ids()[b]));
+        int[] ids = new int[order.length];
+        float[] scores = new float[order.length];
+        for (int i = 0; i < order.length; i++) {
+            ids[i] = ranked.ids()[order[i]];
+            scores[i] = ranked.scores()[order[i]];
+        }
+        return new SkillHits(ids, scores);
+    }
+
+    // Binary heap of (node, similarity); the head is the least similar node when minHead is set
+    private static final class NodeQueue {
+        private final boolean minHead;
+        private int[] nodes = new int[16];
+        private float[] similarities = new float[16];
+        private int size;
+
+        NodeQueue(boolean minHead) {
+            this.minHead = minHead;
+        }
+
+        int size() {
+            return size;
+        }
+
+        float peekSimilarity() {
+            return similarities[0];
+        }
+
+        void push(int node, float similarity) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                similarities = Arrays.copyOf(similarities, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!above(similarity, similarities[parent])) break;
+                nodes[i] = nodes[parent];
+                similarities[i] = similarities[parent];
+                i = parent;
+            }
+            nodes[i] = node;
+            similarities[i] = similarity;
+        }
+
+        int pop() {
+            int head = nodes[0];
+            int lastNode = nodes[--size];
+            float last = similarities[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) break;
+                if (child + 1 < size && above(similarities[child + 1], similarities[child])) child++;
+                if (!above(similarities[child], last)) break;
+                nodes[i] = nodes[child];
+                similarities[i] = similarities[child];
+                i = child;
+            }
+            nodes[i] = lastNode;
+            similarities[i] = last;
+            return head;
+        }
+
+        // Empties a min-headed queue into an array, most similar first
+        int[] drainBestFirst() {
+            int[] drained = new int[size];
+            for (int i = drained.length - 1; i >= 0; i--) {
+                drained[i] = pop();
+            }
+            return drained;
+        }
+
+        private boolean above(float a, float b) {
+            return minHead ? a < b : a > b;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.walid.jobmatcher.matching;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Skill term to document-id posting lists, kept as sorted {@code int[]}.
+ * <p>
+ * Reads are lock-free; {@link #add} and {@link #remove} are serialized and replace the
+ * affected posting arrays copy-on-write. Document frequencies are the posting lengths,
+ * and document lengths and their total are updated with each change, so corpus
+ * statistics never need a full recomputation. Use {@link Builder} for bulk loads.
+ */
+public final class InvertedSkillIndex implements CorpusStatistics {
+
+    private final ConcurrentHashMap<String, int[]> postings;
+    // profile size per document id, 0 when the document is absent
+    private volatile int[] documentLengths;
+    private volatile int documentCount;
+    private volatile long totalLength;
+
+    public InvertedSkillIndex() {
+        this(new ConcurrentHashMap<>(), new int[64], 0, 0);
+    }
+
+    private InvertedSkillIndex(ConcurrentHashMap<String, int[]> postings, int[] documentLengths,
+                               int documentCount, long totalLength) {
+        this.postings = postings;
+        this.documentLengths = documentLengths;
+        this.documentCount = documentCount;
+        this.totalLength = totalLength;
+    }
+
+    // Documents without terms are not indexed
+    public synchronized void add(int documentId, Set<String> terms) {
+        if (terms.isEmpty()) return;
+        for (String term : terms) {
+            postings.compute(term, (t, list) -> PostingLists.insert(list, documentId));
+        }
+        if (documentId >= documentLengths.length) {
+            documentLengths = Arrays.copyOf(documentLengths, Math.max(documentId + 1, documentLengths.length * 2));
+        }
+        int previous = documentLengths[documentId];
+        documentLengths[documentId] = terms.size();
+        if (previous == 0) {
+            documentCount++;
+        }
+        totalLength += terms.size() - previous;
+    }
+
+    public synchronized void remove(int documentId, Set<String> terms) {
+        for (String term : terms) {
+            postings.computeIfPresent(term, (t, list) -> PostingLists.remove(list, documentId));
+        }
+        int previous = documentLength(documentId);
+        if (previous > 0) {
+            documentLengths[documentId] = 0;
+            documentCount--;
+            totalLength -= previous;
+        }
+    }
+
+    public int[] postings(String term) {
+        return postings.getOrDefault(term, PostingLists.EMPTY);
+    }
+
+    // Documents containing every term of the skill
+    public int[] postings(NormalizedSkill skill) {
+        List<String> terms = skill.terms();
+        if (terms.isEmpty()) return PostingLists.EMPTY;
+        int[] result = postings(terms.get(0));
+        for (int i = 1; i < terms.size() && result.length > 0; i++) {
+            result = PostingLists.intersect(result, postings(terms.get(i)));
+        }
+        return result;
+    }
+
+    /**
+     * Scores every document matching at least one of the skills. Documents matching
+     * none are left out; the result is ordered by document id.
+     */
+    public SkillHits match(List<NormalizedSkill> skills, MatchScorer scorer) {
+        int[][] lists = new int[skills.size()][];
+        float[] weights = new float[skills.size()];
+        int maxId = -1;
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = postings(skills.get(i));
+            weights[i] = scorer.skillWeight(skills.get(i));
+            if (lists[i].length > 0) {
+                maxId = Math.max(maxId, lists[i][lists[i].length - 1]);
+            }
+        }
+        if (maxId < 0) return SkillHits.NONE;
+
+        boolean[] matched = new boolean[maxId + 1];
+        float[] matchedWeight = new float[maxId + 1];
+        int distinct = 0;
+        for (int i = 0; i < lists.length; i++) {
+            float weight = weights[i];
+            for (int id : lists[i]) {
+                if (!matched[id]) {
+                    matched[id] = true;
+                    distinct++;
+                }
+                matchedWeight[id] += weight;
+            }
+        }
+        int[] ids = new int[distinct];
+        float[] scores = new float[distinct];
+        for (int id = 0, n = 0; n < distinct; id++) {
+            if (matched[id]) {
+                ids[n] = id;
+                scores[n++] = scorer.score(matchedWeight[id], documentLength(id));
+            }
+        }
+        return new SkillHits(ids, scores);
+    }
+
+    /**
+     * Prepares the skills for chunked scoring: posting lists and skill weights are
+     * resolved once and shared, read-only, by every chunk.
+     */
+    public Query query(List<NormalizedSkill> skills, MatchScorer scorer) {
+        int[][] lists = new int[skills.size()][];
+        float[] weights = new float[skills.size()];
+        int idLimit = 0;
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = postings(skills.get(i));
+            weights[i] = scorer.skillWeight(skills.get(i));
+            if (lists[i].length > 0) {
+                idLimit = Math.max(idLimit, lists[i][lists[i].length - 1] + 1);
+            }
+        }
+        return new Query(lists, weights, idLimit, scorer);
+    }
+
+    public final class Query implements RangeScorer {
+        private final int[][] lists;
+        private final float[] weights;
+        private final int idLimit;
+        private final MatchScorer scorer;
+
+        private Query(int[][] lists, float[] weights, int idLimit, MatchScorer scorer) {
+            this.lists = lists;
+            this.weights = weights;
+            this.idLimit = idLimit;
+            this.scorer = scorer;
+        }
+
+        @Override
+        public int idLimit() {
+            return idLimit;
+        }
+
+        @Override
+        public void scoreRange(int fromId, int toId, float minScore, TopK sink) {
+            int width = Math.min(toId, idLimit) - fromId;
+            if (width <= 0) return;
+            // accumulators sized to the chunk, not the id space
+            boolean[] matched = new boolean[width];
+            float[] matchedWeight = new float[width];
+            for (int i = 0; i < lists.length; i++) {
+                int[] list = lists[i];
+                int start = Arrays.binarySearch(list, fromId);
+                for (int p = start >= 0 ? start : -start - 1; p < list.length && list[p] < toId; p++) {
+                    matched[list[p] - fromId] = true;
+                    matchedWeight[list[p] - fromId] += weights[i];
+                }
+            }
+            for (int offset = 0; offset < width; offset++) {
+                if (matched[offset]) {
+                    int id = fromId + offset;
+                    float score = scorer.score(matchedWeight[offset], documentLength(id));
+                    if (score >= minScore) {
+                        sink.offer(id, score);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public int documentCount() {
+        return documentCount;
+    }
+
+    @Override
+    public int documentFrequency(String term) {
+        return postings(term).length;
+    }
+
+    @Override
+    public double averageDocumentLength() {
+        int count = documentCount;
+        return count == 0 ? 0 : (double) totalLength / count;
+    }
+
+    public int documentLength(int documentId) {
+        int[] lengths = documentLengths;
+        return documentId < lengths.length ? lengths[documentId] : 0;
+    }
+
+    public int termCount() {
+        return postings.size();
+    }
+
+    // Collects postings unordered and sorts them once, avoiding copy-on-write per insert
+    public static final class Builder {
+        private final Map<String, IntList> lists = new HashMap<>();
+        private int[] documentLengths = new int[64];
+        private int documentCount;
+        private long totalLength;
+
+        public Builder add(int documentId, Set<String> terms) {
+            if (terms.isEmpty()) return this;
+            if (documentId >= documentLengths.length) {
+                documentLengths = Arrays.copyOf(documentLengths, Math.max(documentId + 1, documentLengths.length * 2));
+            }
+            if (documentLengths[documentId] != 0) {
+                throw new IllegalArgumentException("Document " + documentId + " added twice");
+            }
+            documentLengths[documentId] = terms.size();
+            documentCount++;
+            totalLength += terms.size();
+            for (String term : terms) {
+                lists.computeIfAbsent(term, t -> new IntList()).add(documentId);
+            }
+            return this;
+        }
+
+        public InvertedSkillIndex build() {
+            ConcurrentHashMap<String, int[]> postings = new ConcurrentHashMap<>(lists.size());
+            lists.forEach((term, list) -> postings.put(term, list.toSortedArray()));
+            return new InvertedSkillIndex(postings, documentLengths, documentCount, totalLength);
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toSortedArray() {
+            int[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.walid.jobmatcher.matching;
+
+// Every matched skill is worth one point, as in the original matcher
+public final class KeywordScorer implements MatchScorer {
+
+    public static final String NAME = "keyword";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public float skillWeight(NormalizedSkill skill) {
+        return 1f;
+    }
+
+    @Override
+    public float score(float matchedWeight, int documentLength) {
+        return matchedWeight;
+    }
+}
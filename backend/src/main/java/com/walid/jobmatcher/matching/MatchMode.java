@@ -0,0 +1,23 @@
+package com.walid.jobmatcher.matching;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * How a match request ranks: by skill keywords, by embedding similarity, or by a
+ * weighted blend of the two.
+ */
+public enum MatchMode {
+    KEYWORD,
+    SEMANTIC,
+    HYBRID;
+
+    public static MatchMode of(String name) {
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown match mode: " + name + ". Available: "
+                    + Arrays.toString(values()).toLowerCase(Locale.ROOT));
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.walid.jobmatcher.matching;
+
+/**
+ * Turns the skills a document matched into a score. A document's score is
+ * {@code score(sum of skillWeight over matched skills, documentLength)}, which lets
+ * the indexes accumulate weights without knowing the scoring model.
+ */
+public interface MatchScorer {
+
+    String name();
+
+    float skillWeight(NormalizedSkill skill);
+
+    float score(float matchedWeight, int documentLength);
+}
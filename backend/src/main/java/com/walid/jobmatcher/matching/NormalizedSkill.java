@@ -0,0 +1,22 @@
+package com.walid.jobmatcher.matching;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A required skill reduced to the profile terms that must all be present for it to match.
+ */
+public record NormalizedSkill(String skill, List<String> terms) {
+
+    public static NormalizedSkill of(String skill) {
+        return new NormalizedSkill(skill, SkillTokenizer.skillTerms(skill));
+    }
+
+    public static NormalizedSkill of(String skill, SkillOntology ontology) {
+        return new NormalizedSkill(skill, SkillTokenizer.skillTerms(skill, ontology));
+    }
+
+    public boolean matches(Set<String> profile) {
+        return !terms.isEmpty() && profile.containsAll(terms);
+    }
+}
@@ -0,0 +1,56 @@
+package com.walid.jobmatcher.matching;
+
+import java.util.Arrays;
+
+/**
+ * Copy-on-write helpers for posting lists stored as sorted, duplicate-free {@code int[]}.
+ * Arrays are never mutated once published, so readers need no locking.
+ */
+public final class PostingLists {
+
+    public static final int[] EMPTY = new int[0];
+
+    private PostingLists() {
+    }
+
+    public static int[] insert(int[] postings, int id) {
+        if (postings == null) return new int[]{id};
+        int i = Arrays.binarySearch(postings, id);
+        if (i >= 0) return postings;
+        int at = -i - 1;
+        int[] result = new int[postings.length + 1];
+        System.arraycopy(postings, 0, result, 0, at);
+        result[at] = id;
+        System.arraycopy(postings, at, result, at + 1, postings.length - at);
+        return result;
+    }
+
+    // Returns null once the list is empty so callers can drop the term
+    public static int[] remove(int[] postings, int id) {
+        if (postings == null) return null;
+        int i = Arrays.binarySearch(postings, id);
+        if (i < 0) return postings;
+        if (postings.length == 1) return null;
+        int[] result = new int[postings.length - 1];
+        System.arraycopy(postings, 0, result, 0, i);
+        System.arraycopy(postings, i + 1, result, i, postings.length - i - 1);
+        return result;
+    }
+
+    public static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int n = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+}
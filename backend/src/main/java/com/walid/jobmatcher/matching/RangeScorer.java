@@ -0,0 +1,14 @@
+package com.walid.jobmatcher.matching;
+
+/**
+ * A prepared query that can score any slice of the document-id space on its own,
+ * so the space can be split into chunks and scored in parallel.
+ */
+public interface RangeScorer {
+
+    // Exclusive upper bound of the document ids that can match
+    int idLimit();
+
+    // Offers every document in [fromId, toId) scoring at least minScore to the sink
+    void scoreRange(int fromId, int toId, float minScore, TopK sink);
+}
@@ -0,0 +1,126 @@
+package com.walid.jobmatcher.matching;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Required-skill index over jobs: each skill is filed under its first term, so a
+ * resume profile finds its jobs by probing only the terms it contains.
+ * <p>
+ * Reads are lock-free; writers are serialized and replace entry arrays copy-on-write.
+ */
+public final class ReverseSkillIndex {
+
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    private final ConcurrentHashMap<String, Entry[]> entries = new ConcurrentHashMap<>();
+    private final Set<Integer> documents = ConcurrentHashMap.newKeySet();
+    private volatile int maxDocumentId = -1;
+
+    // One entry per listed skill, so a skill listed twice counts twice, as with text matching
+    private record Entry(int documentId, NormalizedSkill skill) {
+    }
+
+    public synchronized void add(int documentId, List<NormalizedSkill> skills) {
+        for (NormalizedSkill skill : skills) {
+            List<String> terms = skill.terms();
+            if (terms.isEmpty()) continue;
+            Entry entry = new Entry(documentId, skill);
+            entries.merge(terms.get(0), new Entry[]{entry}, ReverseSkillIndex::concat);
+        }
+        documents.add(documentId);
+        if (documentId > maxDocumentId) {
+            maxDocumentId = documentId;
+        }
+    }
+
+    // Bulk load that concatenates each term's entries once instead of per document
+    public static ReverseSkillIndex build(Map<Integer, List<NormalizedSkill>> skillsByDocument) {
+        ReverseSkillIndex index = new ReverseSkillIndex();
+        Map<String, List<Entry>> collected = new HashMap<>();
+        skillsByDocument.forEach((documentId, skills) -> {
+            for (NormalizedSkill skill : skills) {
+                List<String> terms = skill.terms();
+                if (terms.isEmpty()) continue;
+                collected.computeIfAbsent(terms.get(0), t -> new ArrayList<>())
+                        .add(new Entry(documentId, skill));
+            }
+            index.documents.add(documentId);
+            index.maxDocumentId = Math.max(index.maxDocumentId, documentId);
+        });
+        collected.forEach((term, list) -> index.entries.put(term, list.toArray(NO_ENTRIES)));
+        return index;
+    }
+
+    public synchronized void remove(int documentId) {
+        entries.replaceAll((term, list) -> Arrays.stream(list)
+                .filter(e -> e.documentId() != documentId)
+                .toArray(Entry[]::new));
+        entries.values().removeIf(list -> list.length == 0);
+        documents.remove(documentId);
+    }
+
+    /**
+     * Scores every indexed document with at least one skill the profile contains. The
+     * profile is the scored document, so its size is the document length.
+     */
+    public SkillHits match(Set<String> profile, MatchScorer scorer) {
+        if (profile == null || profile.isEmpty()) return SkillHits.NONE;
+        boolean[] matched = new boolean[maxDocumentId + 1];
+        float[] matchedWeight = new float[matched.length];
+        int distinct = 0;
+        // probe from whichever side is smaller
+        if (profile.size() <= entries.size()) {
+            for (String term : profile) {
+                distinct += accumulate(entries.getOrDefault(term, NO_ENTRIES), profile, scorer, matched, matchedWeight);
+            }
+        } else {
+            for (Map.Entry<String, Entry[]> e : entries.entrySet()) {
+                if (profile.contains(e.getKey())) {
+                    distinct += accumulate(e.getValue(), profile, scorer, matched, matchedWeight);
+                }
+            }
+        }
+        int[] ids = new int[distinct];
+        float[] scores = new float[distinct];
+        for (int id = 0, n = 0; n < distinct; id++) {
+            if (matched[id]) {
+                ids[n] = id;
+                scores[n++] = scorer.score(matchedWeight[id], profile.size());
+            }
+        }
+        return new SkillHits(ids, scores);
+    }
+
+    public int documentCount() {
+        return documents.size();
+    }
+
+    private static int accumulate(Entry[] list, Set<String> profile, MatchScorer scorer,
+                                  boolean[] matched, float[] matchedWeight) {
+        int newlyMatched = 0;
+        for (Entry entry : list) {
+            int id = entry.documentId();
+            List<String> terms = entry.skill().terms();
+            if (id < matched.length && profile.containsAll(terms.subList(1, terms.size()))) {
+                if (!matched[id]) {
+                    matched[id] = true;
+                    newlyMatched++;
+                }
+                matchedWeight[id] += scorer.skillWeight(entry.skill());
+            }
+        }
+        return newlyMatched;
+    }
+
+    private static Entry[] concat(Entry[] a, Entry[] b) {
+        Entry[] result = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, result, a.length, b.length);
+        return result;
+    }
+}
@@ -0,0 +1,34 @@
+package com.walid.jobmatcher.matching;
+
+import java.util.Arrays;
+
+/**
+ * Documents matched by an index lookup and their scores, ordered by document id.
+ */
+public record SkillHits(int[] ids, float[] scores) {
+
+    public static final SkillHits NONE = new SkillHits(PostingLists.EMPTY, new float[0]);
+
+    public int size() {
+        return ids.length;
+    }
+
+    // The hits whose id is in the given ascending id list, by a merge of both lists
+    public SkillHits retain(int[] sortedIds) {
+        int[] keptIds = new int[Math.min(ids.length, sortedIds.length)];
+        float[] keptScores = new float[keptIds.length];
+        int n = 0;
+        for (int i = 0, j = 0; i < ids.length && j < sortedIds.length; ) {
+            if (ids[i] < sortedIds[j]) {
+                i++;
+            } else if (ids[i] > sortedIds[j]) {
+                j++;
+            } else {
+                keptIds[n] = ids[i];
+                keptScores[n++] = scores[i++];
+                j++;
+            }
+        }
+        return new SkillHits(Arrays.copyOf(keptIds, n), Arrays.copyOf(keptScores, n));
+    }
+}
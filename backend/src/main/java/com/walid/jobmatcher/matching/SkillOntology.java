@@ -0,0 +1,217 @@
+package com.walid.jobmatcher.matching;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Immutable dictionary from skill surface forms ({@code js}, {@code ecmascript},
+ * {@code node js}) to canonical skills, compiled into a token trie.
+ * <p>
+ * Names and forms are tokenized like resume text and limited to
+ * {@value SkillTokenizer#MAX_NGRAM} tokens, so each is exactly one profile term. Each
+ * canonical skill has a dense int id and a term: its name as a profile term, so text that
+ * spells out the canonical name matches it with or without the ontology.
+ * <p>
+ * The trie is stored as flat arrays: the children of node {@code n} are
+ * {@code childTokens/childNodes[childStart[n] .. childStart[n + 1])}, sorted by token id.
+ */
+public final class SkillOntology {
+
+    public static final SkillOntology EMPTY = compile(Map.of());
+
+    private final Map<String, Integer> tokenIds;
+    private final int[] childStart;
+    private final int[] childTokens;
+    private final int[] childNodes;
+    private final int[] canonicalIds;
+    private final String[] terms;
+    private final int surfaceForms;
+
+    private SkillOntology(Map<String, Integer> tokenIds, int[] childStart, int[] childTokens, int[] childNodes,
+                          int[] canonicalIds, String[] terms, int surfaceForms) {
+        this.tokenIds = tokenIds;
+        this.childStart = childStart;
+        this.childTokens = childTokens;
+        this.childNodes = childNodes;
+        this.canonicalIds = canonicalIds;
+        this.terms = terms;
+        this.surfaceForms = surfaceForms;
+    }
+
+    /**
+     * Parses lines of {@code canonical = form, form, ...}; the canonical name is a form
+     * of itself. Blank lines and lines starting with {@code #} are skipped.
+     */
+    public static SkillOntology parse(Reader source) throws IOException {
+        Map<String, List<String>> formsByCanonical = new TreeMap<>();
+        BufferedReader reader = new BufferedReader(source);
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            int equals = line.indexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": expected 'canonical = form, ...'");
+            }
+            List<String> forms = formsByCanonical.computeIfAbsent(line.substring(0, equals).strip(), c -> new ArrayList<>());
+            for (String form : line.substring(equals + 1).split(",")) {
+                if (!form.isBlank()) forms.add(form.strip());
+            }
+        }
+        return compile(formsByCanonical);
+    }
+
+    public static SkillOntology compile(Map<String, List<String>> formsByCanonical) {
+        Map<String, Integer> tokenIds = new HashMap<>();
+        List<Map<Integer, Integer>> children = new ArrayList<>();
+        List<Integer> values = new ArrayList<>();
+        children.add(new HashMap<>());
+        values.add(-1);
+        List<String> terms = new ArrayList<>();
+        Map<String, Integer> idByTerm = new HashMap<>();
+        int surfaceForms = 0;
+
+        for (Map.Entry<String, List<String>> entry : formsByCanonical.entrySet()) {
+            List<String> canonicalTokens = tokens(entry.getKey());
+            if (canonicalTokens.isEmpty() || canonicalTokens.size() > SkillTokenizer.MAX_NGRAM) {
+                throw new IllegalArgumentException("Canonical skill '" + entry.getKey() + "' must have 1 to "
+                        + SkillTokenizer.MAX_NGRAM + " tokens");
+            }
+            String term = String.join(" ", canonicalTokens);
+            Integer id = idByTerm.get(term);
+            if (id == null) {
+                id = terms.size();
+                idByTerm.put(term, id);
+                terms.add(term);
+            }
+            List<String> forms = new ArrayList<>(entry.getValue());
+            forms.add(entry.getKey());
+            for (String form : forms) {
+                List<String> formTokens = tokens(form);
+                if (formTokens.isEmpty() || formTokens.size() > SkillTokenizer.MAX_NGRAM) {
+                    throw new IllegalArgumentException("Skill form '" + form + "' of '" + entry.getKey() + "' must have 1 to "
+                            + SkillTokenizer.MAX_NGRAM + " tokens");
+                }
+                int node = 0;
+                for (String token : formTokens) {
+                    int tokenId = tokenIds.computeIfAbsent(token, t -> tokenIds.size());
+                    Integer child = children.get(node).get(tokenId);
+                    if (child == null) {
+                        child = children.size();
+                        children.get(node).put(tokenId, child);
+                        children.add(new HashMap<>());
+                        values.add(-1);
+                    }
+                    node = child;
+                }
+                int previous = values.get(node);
+                if (previous >= 0 && previous != id) {
+                    throw new IllegalArgumentException("Skill form '" + form + "' maps to both '" + terms.get(previous)
+                            + "' and '" + term + "'");
+                }
+                if (previous < 0) surfaceForms++;
+                values.set(node, id);
+            }
+        }
+
+        int nodes = children.size();
+        int[] childStart = new int[nodes + 1];
+        int edges = 0;
+        for (int n = 0; n < nodes; n++) {
+            childStart[n] = edges;
+            edges += children.get(n).size();
+        }
+        childStart[nodes] = edges;
+        int[] childTokens = new int[edges];
+        int[] childNodes = new int[edges];
+        for (int n = 0; n < nodes; n++) {
+            int[] tokens = children.get(n).keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+            for (int i = 0; i < tokens.length; i++) {
+                childTokens[childStart[n] + i] = tokens[i];
+                childNodes[childStart[n] + i] = children.get(n).get(tokens[i]);
+            }
+        }
+        int[] canonicalIds = values.stream().mapToInt(Integer::intValue).toArray();
+        return new SkillOntology(Map.copyOf(tokenIds), childStart, childTokens, childNodes, canonicalIds,
+                terms.toArray(String[]::new), surfaceForms);
+    }
+
+    // Canonical id of the whole token sequence, or -1 when it is not a known form
+    public int lookup(List<String> tokens) {
+        int node = 0;
+        for (String token : tokens) {
+            node = child(node, token);
+            if (node < 0) return -1;
+        }
+        return canonicalIds[node];
+    }
+
+    // Canonical id of a profile term (tokens joined by single spaces), or -1
+    public int lookup(String term) {
+        int node = 0;
+        int start = 0;
+        while (node >= 0) {
+            int end = term.indexOf(' ', start);
+            node = child(node, end < 0 ? term.substring(start) : term.substring(start, end));
+            if (end < 0) break;
+            start = end + 1;
+        }
+        return node < 0 ? -1 : canonicalIds[node];
+    }
+
+    /**
+     * The profile plus the canonical term of every known form among its terms. Forms are
+     * at most {@value SkillTokenizer#MAX_NGRAM} tokens, so every form in a text is one of
+     * its profile terms, and stored profiles can be canonicalized without the text.
+     */
+    public Set<String> canonicalize(Set<String> profile) {
+        if (terms.length == 0 || profile == null) return profile;
+        Set<String> canonical = null;
+        for (String term : profile) {
+            int id = lookup(term);
+            if (id >= 0 && !profile.contains(terms[id])) {
+                if (canonical == null) canonical = new HashSet<>(profile);
+                canonical.add(terms[id]);
+            }
+        }
+        return canonical == null ? profile : canonical;
+    }
+
+    public String term(int canonicalId) {
+        return terms[canonicalId];
+    }
+
+    public int canonicalSkills() {
+        return terms.length;
+    }
+
+    public int surfaceForms() {
+        return surfaceForms;
+    }
+
+    private int child(int node, String token) {
+        Integer tokenId = tokenIds.get(token);
+        if (tokenId == null) return -1;
+        int i = Arrays.binarySearch(childTokens, childStart[node], childStart[node + 1], tokenId);
+        return i < 0 ? -1 : childNodes[i];
+    }
+
+    private static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (List<String> phrase : SkillTokenizer.phrases(text)) {
+            tokens.addAll(phrase);
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,115 @@
+package com.walid.jobmatcher.matching;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Turns resume text and skill names into lower-cased, word-boundary aware terms.
+ * <p>
+ * A token is a run of letters and digits, plus the symbols skills commonly carry
+ * ({@code c++}, {@code c#}, {@code node.js}, {@code .net}). Whitespace, {@code -},
+ * {@code _} and {@code /} separate tokens inside a phrase; any other punctuation
+ * ends the phrase, so n-grams never span a comma or a sentence.
+ * A profile holds every 1..{@value #MAX_NGRAM}-gram of the text, tokens joined by a single space.
+ */
+public final class SkillTokenizer {
+
+    public static final int MAX_NGRAM = 3;
+
+    private SkillTokenizer() {
+    }
+
+    public static Set<String> profile(String text) {
+        if (text == null || text.isBlank()) return Collections.emptySet();
+        Set<String> terms = new HashSet<>();
+        for (List<String> phrase : phrases(text)) {
+            for (int i = 0; i < phrase.size(); i++) {
+                StringBuilder gram = new StringBuilder(phrase.get(i));
+                terms.add(gram.toString());
+                for (int n = 2; n <= MAX_NGRAM && i + n <= phrase.size(); n++) {
+                    gram.append(' ').append(phrase.get(i + n - 1));
+                    terms.add(gram.toString());
+                }
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Terms a profile must contain for the skill to match. Skills of up to
+     * {@value #MAX_NGRAM} tokens map to a single term; longer ones to all their
+     * {@value #MAX_NGRAM}-token windows. Empty when the skill has no tokens.
+     */
+    public static List<String> skillTerms(String skill) {
+        return skillTerms(skill, SkillOntology.EMPTY);
+    }
+
+    // A skill that is a known form, as a whole, reduces to its canonical term
+    public static List<String> skillTerms(String skill, SkillOntology ontology) {
+        List<String> tokens = new ArrayList<>();
+        if (skill != null) {
+            // a skill is a single phrase even if it contains punctuation
+            for (List<String> phrase : phrases(skill)) {
+                tokens.addAll(phrase);
+            }
+        }
+        int canonicalId = tokens.isEmpty() ? -1 : ontology.lookup(tokens);
+        if (canonicalId >= 0) {
+            return List.of(ontology.term(canonicalId));
+        }
+        if (tokens.size() <= MAX_NGRAM) {
+            return tokens.isEmpty() ? List.of() : List.of(String.join(" ", tokens));
+        }
+        List<String> windows = new ArrayList<>(tokens.size() - MAX_NGRAM + 1);
+        for (int i = 0; i + MAX_NGRAM <= tokens.size(); i++) {
+            windows.add(String.join(" ", tokens.subList(i, i + MAX_NGRAM)));
+        }
+        return List.copyOf(windows);
+    }
+
+    static List<List<String>> phrases(String text) {
+        List<List<String>> phrases = new ArrayList<>();
+        List<String> phrase = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        int len = text.length();
+        for (int i = 0; i < len; i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            if (Character.isLetterOrDigit(c)) {
+                token.append(c);
+            } else if ((c == '+' || c == '#') && !token.isEmpty()) {
+                token.append(c);
+            } else if (c == '.' && i + 1 < len && Character.isLetterOrDigit(text.charAt(i + 1))
+                    && (!token.isEmpty() || i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1)))) {
+                // node.js, asp.net, .net - but not the full stop ending a sentence
+                token.append(c);
+            } else {
+                flush(token, phrase);
+                if (!isPhraseSeparator(c)) {
+                    if (!phrase.isEmpty()) {
+                        phrases.add(phrase);
+                        phrase = new ArrayList<>();
+                    }
+                }
+            }
+        }
+        flush(token, phrase);
+        if (!phrase.isEmpty()) {
+            phrases.add(phrase);
+        }
+        return phrases;
+    }
+
+    private static void flush(StringBuilder token, List<String> phrase) {
+        if (!token.isEmpty()) {
+            phrase.add(token.toString());
+            token.setLength(0);
+        }
+    }
+
+    private static boolean isPhraseSeparator(char c) {
+        return Character.isWhitespace(c) || c == '-' || c == '_' || c == '/';
+    }
+}
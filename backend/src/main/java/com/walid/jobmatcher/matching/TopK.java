@@ -0,0 +1,113 @@
+package com.walid.jobmatcher.matching;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the {@code k} best (id, score) pairs seen so far in a primitive min-heap, so
+ * selecting a page of results costs O(k) memory however many documents are offered.
+ * Higher scores rank first; equal scores rank by ascending id. Not thread-safe: give
+ * each thread its own instance and {@link #merge} them.
+ */
+public final class TopK {
+
+    private final int k;
+    private final int[] ids;
+    private final float[] scores;
+    private int size;
+    private int offered;
+
+    public TopK(int k) {
+        if (k < 0) throw new IllegalArgumentException("k must not be negative");
+        this.k = k;
+        this.ids = new int[k];
+        this.scores = new float[k];
+    }
+
+    public void offer(int id, float score) {
+        offered++;
+        if (k == 0) return;
+        if (size < k) {
+            ids[size] = id;
+            scores[size] = score;
+            siftUp(size++);
+        } else if (ranksBefore(id, score, ids[0], scores[0])) {
+            ids[0] = id;
+            scores[0] = score;
+            siftDown(0);
+        }
+    }
+
+    public void merge(TopK other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.ids[i], other.scores[i]);
+        }
+        offered += other.offered - other.size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The retained entries, best first, skipping the first {@code offset}, along with
+     * the total number of entries offered.
+     */
+    public Ranked ranked(int offset) {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> ranksBefore(ids[a], scores[a], ids[b], scores[b]) ? -1
+                : ranksBefore(ids[b], scores[b], ids[a], scores[a]) ? 1 : 0);
+        int n = Math.max(0, size - offset);
+        int[] rankedIds = new int[n];
+        float[] rankedScores = new float[n];
+        for (int i = 0; i < n; i++) {
+            rankedIds[i] = ids[order[offset + i]];
+            rankedScores[i] = scores[order[offset + i]];
+        }
+        return new Ranked(rankedIds, rankedScores, offered);
+    }
+
+    public record Ranked(int[] ids, float[] scores, int total) {
+        public int size() {
+            return ids.length;
+        }
+    }
+
+    private static boolean ranksBefore(int id, float score, int otherId, float otherScore) {
+        return score > otherScore || (score == otherScore && id < otherId);
+    }
+
+    // heap root is the worst retained entry
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!ranksBefore(ids[parent], scores[parent], ids[i], scores[i])) break;
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) break;
+            int worst = left;
+            int right = left + 1;
+            if (right < size && ranksBefore(ids[left], scores[left], ids[right], scores[right])) {
+                worst = right;
+            }
+            if (!ranksBefore(ids[i], scores[i], ids[worst], scores[worst])) break;
+            swap(i, worst);
+            i = worst;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        float score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+}
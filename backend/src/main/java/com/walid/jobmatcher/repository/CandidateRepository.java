@@ -2,10 +2,20 @@ package com.walid.jobmatcher.repository;
 
 import com.walid.jobmatcher.entity.Candidate;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface CandidateRepository extends JpaRepository<Candidate, Long> {
     Optional<Candidate> findByEmail(String email);
 
+    @Query("select c.id as id, c.email as email, c.fullName as fullName from Candidate c where c.id in :ids")
+    List<CandidateSummaryView> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select c.id from Candidate c where c.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
 }
@@ -0,0 +1,8 @@
+package com.walid.jobmatcher.repository;
+
+// The candidate columns a match result shows, without the resume relation or password
+public interface CandidateSummaryView {
+    Long getId();
+    String getEmail();
+    String getFullName();
+}
@@ -1,10 +1,25 @@
 package com.walid.jobmatcher.repository;
 
 import com.walid.jobmatcher.entity.JobPost;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface JobPostRepository extends JpaRepository<JobPost, Long> {
     List<JobPost> findByRecruiterId(Long recruiterId);
+
+    @EntityGraph(attributePaths = "requiredSkills")
+    List<JobPost> findWithRequiredSkillsByIdIn(Collection<Long> ids);
+
+    @Query("select j.id as jobId, s as skill from JobPost j join j.requiredSkills s")
+    List<JobSkillView> findAllRequiredSkills();
+
+    @Query("select j.id from JobPost j")
+    List<Long> findAllIds();
+
+    @Query("select j.id as id, j.title as title, j.description as description from JobPost j")
+    List<JobTextView> findAllDescriptions();
 }
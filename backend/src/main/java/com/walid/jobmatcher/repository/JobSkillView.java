@@ -0,0 +1,7 @@
+package com.walid.jobmatcher.repository;
+
+// One row per (job, required skill), read in a single query instead of one per job
+public interface JobSkillView {
+    Long getJobId();
+    String getSkill();
+}
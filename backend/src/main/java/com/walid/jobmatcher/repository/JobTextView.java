@@ -0,0 +1,8 @@
+package com.walid.jobmatcher.repository;
+
+// A job's id, title and description, for building embeddings without loading entities
+public interface JobTextView {
+    Long getId();
+    String getTitle();
+    String getDescription();
+}
@@ -0,0 +1,15 @@
+package com.walid.jobmatcher.repository;
+
+import com.walid.jobmatcher.entity.MatchCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+// Reads only; rows are kept by MatchScoreMaterializer alongside match_scores
+public interface MatchCountRepository extends JpaRepository<MatchCount, MatchCount.Key> {
+
+    @Query("select c.total from MatchCount c where c.subjectType = :subjectType and c.subjectId = :subjectId")
+    Optional<Integer> findTotal(@Param("subjectType") String subjectType, @Param("subjectId") Long subjectId);
+}
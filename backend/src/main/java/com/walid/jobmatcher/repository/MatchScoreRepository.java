@@ -0,0 +1,33 @@
+package com.walid.jobmatcher.repository;
+
+import com.walid.jobmatcher.entity.MatchScore;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+// Reads only; rows are written in JDBC batches by MatchScoreMaterializer
+public interface MatchScoreRepository extends JpaRepository<MatchScore, MatchScore.Key> {
+
+    // Walks idx_match_scores_job_score in order; ties rank by ascending id, as in TopK
+    @Query(value = "select candidate_id as subjectId, score from match_scores " +
+                   "where job_id = :jobId and score >= :minScore " +
+                   "order by score desc, candidate_id limit :limit offset :offset", nativeQuery = true)
+    List<MatchScoreView> findTopCandidates(@Param("jobId") Long jobId, @Param("minScore") float minScore,
+                                           @Param("offset") int offset, @Param("limit") int limit);
+
+    @Query(value = "select job_id as subjectId, score from match_scores " +
+                   "where candidate_id = :candidateId and score >= :minScore " +
+                   "order by score desc, job_id limit :limit offset :offset", nativeQuery = true)
+    List<MatchScoreView> findTopJobs(@Param("candidateId") Long candidateId, @Param("minScore") float minScore,
+                                     @Param("offset") int offset, @Param("limit") int limit);
+
+    // Totals above a minimum score; match_counts holds them for the whole ranking
+    @Query(value = "select count(*) from match_scores where job_id = :jobId and score >= :minScore", nativeQuery = true)
+    long countCandidates(@Param("jobId") Long jobId, @Param("minScore") float minScore);
+
+    @Query(value = "select count(*) from match_scores where candidate_id = :candidateId and score >= :minScore",
+           nativeQuery = true)
+    long countJobs(@Param("candidateId") Long candidateId, @Param("minScore") float minScore);
+}
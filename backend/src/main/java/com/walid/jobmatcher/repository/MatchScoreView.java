@@ -0,0 +1,7 @@
+package com.walid.jobmatcher.repository;
+
+// One row of a materialized ranking
+public interface MatchScoreView {
+    Long getSubjectId();
+    Float getScore();
+}
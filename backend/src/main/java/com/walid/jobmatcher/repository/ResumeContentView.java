@@ -0,0 +1,7 @@
+package com.walid.jobmatcher.repository;
+
+// What a new upload with the same content hash can reuse instead of storing and parsing again
+public interface ResumeContentView {
+    String getFilePath();
+    String getExtractedText();
+}
@@ -1,10 +1,70 @@
 package com.walid.jobmatcher.repository;
 
 import com.walid.jobmatcher.entity.Resume;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ResumeRepository extends JpaRepository<Resume, Long> {
+
+    // Rows the JDBC driver buffers per round trip on streaming scans
+    int SCAN_FETCH_SIZE = 500;
+
     Optional<Resume> findByCandidateId(Long candidateId);
+    boolean existsByCandidateId(Long candidateId);
+    Optional<ResumeContentView> findFirstByContentHash(String contentHash);
+    // A stored file may back several resumes once uploads are deduplicated
+    boolean existsByFilePath(String filePath);
+
+    // Locks the resumes backed by a stored file, so none is deleted, and the file destroyed,
+    // before the calling transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r.id from Resume r where r.filePath = :filePath")
+    List<Long> lockIdsByFilePath(@Param("filePath") String filePath);
+
+    @Modifying
+    @Query("delete from Resume r where r.candidate.id in :candidateIds")
+    int deleteByCandidateIdIn(@Param("candidateIds") Collection<Long> candidateIds);
+    List<Resume> findBySkillProfileIsNull(Pageable pageable);
+
+    @Query("select r.candidate.id as candidateId, r.skillProfile as skillProfile from Resume r " +
+           "where r.candidate.id = :candidateId")
+    Optional<ResumeSkillProfileView> findSkillProfileByCandidateId(@Param("candidateId") Long candidateId);
+
+    @Query("select r.candidate.id as candidateId, r.extractedText as extractedText from Resume r " +
+           "where r.candidate.id = :candidateId")
+    Optional<ResumeTextView> findTextByCandidateId(@Param("candidateId") Long candidateId);
+
+    @Query("select r.candidate.id as candidateId, r.extractedText as extractedText from Resume r " +
+           "where r.candidate.id in :candidateIds")
+    List<ResumeTextView> findTextsByCandidateIdIn(@Param("candidateIds") Collection<Long> candidateIds);
+
+    // Streaming scans: must be consumed, and closed, inside a transaction (see ResumeScanner)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + SCAN_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select r.candidate.id as candidateId, r.skillProfile as skillProfile from Resume r " +
+           "where r.candidate is not null and r.skillProfile is not null")
+    Stream<ResumeSkillProfileView> streamAllSkillProfiles();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + SCAN_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select r.candidate.id as candidateId, r.extractedText as extractedText from Resume r " +
+           "where r.candidate is not null")
+    Stream<ResumeTextView> streamAllExtractedTexts();
 }
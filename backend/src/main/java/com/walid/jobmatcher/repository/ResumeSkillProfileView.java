@@ -0,0 +1,9 @@
+package com.walid.jobmatcher.repository;
+
+import java.util.Set;
+
+// Everything the skill index needs from a resume, without its text
+public interface ResumeSkillProfileView {
+    Long getCandidateId();
+    Set<String> getSkillProfile();
+}
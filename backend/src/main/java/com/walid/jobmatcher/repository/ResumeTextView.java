@@ -0,0 +1,7 @@
+package com.walid.jobmatcher.repository;
+
+// A resume's text keyed by candidate, for building embeddings without loading entities
+public interface ResumeTextView {
+    Long getCandidateId();
+    String getExtractedText();
+}
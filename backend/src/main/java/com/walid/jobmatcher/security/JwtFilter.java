@@ -5,7 +5,9 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -16,17 +18,44 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
 import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.util.Collections;
 
 @Component
-@RequiredArgsConstructor
 public class JwtFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtFilter.class);
+    private static final Set<String> PUBLIC_ACTUATOR_PATHS = Set.of("/actuator/health");
+    private static final String SCRAPE_PATH = "/actuator/prometheus";
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final Timer parseTimer;
+    // -1 when the actuator shares the API's port
+    private final int scrapePort;
+
+    public JwtFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService, MeterRegistry meterRegistry,
+                     @Value("${server.port:8080}") int serverPort,
+                     @Value("${management.server.port:-1}") int managementPort) {
+        this.jwtUtil = jwtUtil;
+        this.userDetailsService = userDetailsService;
+        this.scrapePort = managementPort != serverPort ? managementPort : -1;
+        this.parseTimer = Timer.builder("auth.jwt.parse")
+                .description("Signature check and claim extraction of bearer tokens")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Health probes, and Prometheus scrapes on a separate {@code management.server.port},
+     * which must not be reachable from outside; every other actuator endpoint needs a token.
+     */
+    public boolean isPublicActuator(HttpServletRequest request) {
+        String requestURI = request.getRequestURI();
+        return PUBLIC_ACTUATOR_PATHS.contains(requestURI)
+                || (scrapePort > 0 && request.getLocalPort() == scrapePort && requestURI.equals(SCRAPE_PATH));
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -40,7 +69,7 @@ public class JwtFilter extends OncePerRequestFilter {
         logger.info("Request Method: {}", request.getMethod());
 
         // Skip JWT processing for public endpoints
-        if (requestURI.startsWith("/auth/")) {
+        if (requestURI.startsWith("/auth/") || isPublicActuator(request)) {
             logger.info("Skipping JWT processing for public endpoint: {}", requestURI);
             filterChain.doFilter(request, response);
             return;
@@ -60,7 +89,9 @@ public class JwtFilter extends OncePerRequestFilter {
             String token = authHeader.substring(7);
             logger.info("Extracted token: {}", token);
             
+            long parseStart = System.nanoTime();
             if (!jwtUtil.isTokenValid(token)) {
+                parseTimer.record(System.nanoTime() - parseStart, TimeUnit.NANOSECONDS);
                 logger.warn("Token validation failed");
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 response.getWriter().write("Invalid token");
@@ -69,6 +100,7 @@ public class JwtFilter extends OncePerRequestFilter {
 
             String username = jwtUtil.extractUsername(token);
             String role = jwtUtil.extractRole(token);
+            parseTimer.record(System.nanoTime() - parseStart, TimeUnit.NANOSECONDS);
             logger.info("Extracted username: {} and role: {}", username, role);
 
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
@@ -0,0 +1,57 @@
+package com.walid.jobmatcher.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * A stored blob opened for serving. Ranges are written to the target channel straight
+ * from the file or buffer behind it, without an intermediate copy on the heap.
+ */
+public final class BlobContent implements Closeable {
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final long size;
+
+    private BlobContent(FileChannel channel, ByteBuffer buffer, long size) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.size = size;
+    }
+
+    // Served with FileChannel.transferTo; closing the content closes the channel
+    public static BlobContent of(FileChannel channel) throws IOException {
+        return new BlobContent(channel, null, channel.size());
+    }
+
+    // Served from a heap or memory-mapped buffer, whose content must not change afterwards
+    public static BlobContent of(ByteBuffer buffer) {
+        ByteBuffer view = buffer.slice().asReadOnlyBuffer();
+        return new BlobContent(null, view, view.capacity());
+    }
+
+    public long size() {
+        return size;
+    }
+
+    // Writes up to count bytes from position, returning how many were written
+    public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+        if (channel != null) {
+            return channel.transferTo(position, count, target);
+        }
+        if (position >= size) {
+            return 0;
+        }
+        return target.write(buffer.slice((int) position, (int) Math.min(count, size - position)));
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+}
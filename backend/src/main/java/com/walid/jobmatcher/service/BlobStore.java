@@ -0,0 +1,21 @@
+package com.walid.jobmatcher.service;
+
+import java.io.IOException;
+
+/**
+ * Where resume files live. The backend is chosen with {@code resume.storage.backend}:
+ * {@code cloudinary} (the default), {@code local} or {@code memory}; see BlobStoreConfig.
+ * A location returned by {@link #put} is what {@code Resume.filePath} holds, and is only
+ * meaningful to the store that returned it.
+ */
+public interface BlobStore {
+
+    // Stores the content under a new location and returns it
+    String put(SpooledContent content) throws IOException;
+
+    // Opens a stored blob for serving; the caller closes it. Fails with NoSuchFileException if it is gone
+    BlobContent open(String location) throws IOException;
+
+    // Removes a blob; deleting one that is already gone is not an error
+    void delete(String location) throws IOException;
+}
@@ -0,0 +1,105 @@
+package com.walid.jobmatcher.service;
+
+import com.walid.jobmatcher.event.ResumesImportedEvent;
+import com.walid.jobmatcher.event.SkillOntologyReloadedEvent;
+import com.walid.jobmatcher.matching.CorpusStatistics;
+import com.walid.jobmatcher.matching.InvertedSkillIndex;
+import com.walid.jobmatcher.matching.MatchScorer;
+import com.walid.jobmatcher.matching.SkillHits;
+import com.walid.jobmatcher.matching.NormalizedSkill;
+import com.walid.jobmatcher.matching.SkillOntology;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Set;
+
+// Skill -> candidate id postings for recruiter-side matching, so a job never scans resumes.
+// Also the resume corpus statistics weighted scorers work from.
+@Service
+@RequiredArgsConstructor
+public class CandidateSkillIndex implements CorpusStatistics {
+
+    private static final Logger logger = LoggerFactory.getLogger(CandidateSkillIndex.class);
+
+    private final ResumeScanner resumeScanner;
+    private final SkillOntologyService skillOntologyService;
+
+    private volatile InvertedSkillIndex index = new InvertedSkillIndex();
+
+    // Runs after SkillProfileBackfillService so every resume has a profile
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(10)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    // Stored profiles are indexed with the canonical terms of the current ontology
+    @EventListener(SkillOntologyReloadedEvent.class)
+    @Order(10)
+    public void onOntologyReloaded() {
+        rebuild();
+    }
+
+    @EventListener(ResumesImportedEvent.class)
+    @Order(10)
+    public void onResumesImported() {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        SkillOntology ontology = skillOntologyService.current();
+        InvertedSkillIndex.Builder builder = new InvertedSkillIndex.Builder();
+        resumeScanner.forEachSkillProfile(profile ->
+                builder.add(Math.toIntExact(profile.getCandidateId()), ontology.canonicalize(profile.getSkillProfile())));
+        index = builder.build();
+        logger.info("Candidate skill index built: {} candidates, {} terms in {} ms",
+                index.documentCount(), index.termCount(), System.currentTimeMillis() - start);
+    }
+
+    public synchronized void add(Long candidateId, Set<String> skillProfile) {
+        if (skillProfile != null) {
+            index.add(Math.toIntExact(candidateId), skillOntologyService.current().canonicalize(skillProfile));
+        }
+    }
+
+    public synchronized void remove(Long candidateId, Set<String> skillProfile) {
+        if (skillProfile != null) {
+            index.remove(Math.toIntExact(candidateId), skillOntologyService.current().canonicalize(skillProfile));
+        }
+    }
+
+    public SkillHits match(List<NormalizedSkill> requiredSkills, MatchScorer scorer) {
+        return index.match(requiredSkills, scorer);
+    }
+
+    // For chunked scoring; the query keeps reading the index it was prepared against
+    public InvertedSkillIndex.Query query(List<NormalizedSkill> requiredSkills, MatchScorer scorer) {
+        return index.query(requiredSkills, scorer);
+    }
+
+    public int size() {
+        return index.documentCount();
+    }
+
+    @Override
+    public int documentCount() {
+        return index.documentCount();
+    }
+
+    @Override
+    public int documentFrequency(String term) {
+        return index.documentFrequency(term);
+    }
+
+    @Override
+    public double averageDocumentLength() {
+        return index.averageDocumentLength();
+    }
+}
@@ -0,0 +1,91 @@
+package com.walid.jobmatcher.service;
+
+import com.walid.jobmatcher.event.ResumesImportedEvent;
+import com.walid.jobmatcher.matching.HashingEmbedder;
+import com.walid.jobmatcher.matching.HnswIndex;
+import com.walid.jobmatcher.matching.SkillHits;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+// Resume embeddings by candidate id, for semantic matching of candidates to a job
+@Service
+public class CandidateVectorIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(CandidateVectorIndex.class);
+
+    private final ResumeScanner resumeScanner;
+    private final HashingEmbedder embedder;
+    private final HnswIndex.Settings settings;
+
+    private volatile HnswIndex index;
+
+    public CandidateVectorIndex(ResumeScanner resumeScanner, HashingEmbedder embedder, HnswIndex.Settings settings) {
+        this.resumeScanner = resumeScanner;
+        this.embedder = embedder;
+        this.settings = settings;
+        this.index = new HnswIndex(settings);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(10)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @EventListener(ResumesImportedEvent.class)
+    @Order(10)
+    public void onResumesImported() {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        HnswIndex rebuilt = new HnswIndex(settings);
+        // only the embedding of each text is kept
+        resumeScanner.forEachText(resume ->
+                rebuilt.add(Math.toIntExact(resume.getCandidateId()), embedder.embed(resume.getExtractedText())));
+        index = rebuilt;
+        logger.info("Candidate vector index built: {} candidates in {} ms", rebuilt.size(), System.currentTimeMillis() - start);
+    }
+
+    public synchronized void add(Long candidateId, String resumeText) {
+        index.add(Math.toIntExact(candidateId), embedder.embed(resumeText));
+        compactIfNeeded();
+    }
+
+    public synchronized void remove(Long candidateId) {
+        index.remove(Math.toIntExact(candidateId));
+        compactIfNeeded();
+    }
+
+    public SkillHits nearest(float[] query, int k) {
+        return index.search(query, k);
+    }
+
+    public float similarity(float[] query, Long candidateId) {
+        return index.similarity(query, Math.toIntExact(candidateId));
+    }
+
+    // The stored embedding, or null when the candidate is not indexed
+    public float[] embedding(Long candidateId) {
+        return index.vector(Math.toIntExact(candidateId));
+    }
+
+    public float[] embed(String resumeText) {
+        return embedder.embed(resumeText);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    private void compactIfNeeded() {
+        if (index.deletedCount() > Math.max(64, index.size())) {
+            index = index.compact();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.walid.jobmatcher.service;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.utils.ObjectUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Blobs on Cloudinary as raw files, located by their secure URL and read back through a
+ * local {@link ResumeFileCache}. Every Cloudinary call is timed as
+ * {@code cloudinary.requests{operation=upload|destroy|fetch, outcome}}, failures included;
+ * a fetch is timed until the response headers arrive.
+ */
+public class CloudinaryBlobStore implements BlobStore {
+
+    private final Cloudinary cloudinary;
+    private final HttpClient httpClient;
+    private final ResumeFileCache cache;
+    private final Duration fetchTimeout;
+    private final MeterRegistry meterRegistry;
+
+    public CloudinaryBlobStore(Cloudinary cloudinary, HttpClient httpClient, ResumeFileCache cache,
+                               Duration fetchTimeout, MeterRegistry meterRegistry) {
+        this.cloudinary = cloudinary;
+        this.httpClient = httpClient;
+        this.cache = cache;
+        this.fetchTimeout = fetchTimeout;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public String put(SpooledContent content) throws IOException {
+        // the SDK takes a byte[] or a File: the heap buffer itself, or the file behind the mapping
+        Object source = content.isMapped() ? content.file() : content.array();
+        Map<?, ?> result = timed("upload", () -> cloudinary.uploader().upload(source, ObjectUtils.asMap(
+                "resource_type", "raw",
+                "type", "upload")));
+        return (String) result.get("secure_url");
+    }
+
+    // The cached copy, downloaded first if not cached
+    @Override
+    public BlobContent open(String location) throws IOException {
+        return BlobContent.of(cache.open(location, () -> fetch(location)));
+    }
+
+    @Override
+    public void delete(String location) throws IOException {
+        cache.evict(location);
+        timed("destroy", () -> cloudinary.uploader().destroy(location, ObjectUtils.emptyMap()));
+    }
+
+    private InputStream fetch(String location) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(location)).timeout(fetchTimeout).GET().build();
+        HttpResponse<InputStream> response = timed("fetch",
+                () -> httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream()));
+        if (response.statusCode() != 200) {
+            response.body().close();
+            throw new IOException("Fetching " + location + " failed with status " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    private <T> T timed(String operation, Callable<T> call) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            T result = call.call();
+            outcome = "success";
+            return result;
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Cloudinary " + operation + " failed: " + e.getMessage(), e);
+        } finally {
+            sample.stop(meterRegistry.timer("cloudinary.requests", "operation", operation, "outcome", outcome));
+        }
+    }
+}
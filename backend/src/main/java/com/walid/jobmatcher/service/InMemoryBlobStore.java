@@ -0,0 +1,44 @@
+package com.walid.jobmatcher.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.NoSuchFileException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Blobs held on the heap, for tests and offline load tests; nothing survives a restart
+public class InMemoryBlobStore implements BlobStore {
+
+    private static final String SCHEME = "memory:";
+
+    private final Map<String, byte[]> blobs = new ConcurrentHashMap<>();
+
+    @Override
+    public String put(SpooledContent content) throws IOException {
+        String location = SCHEME + UUID.randomUUID();
+        try (InputStream in = content.openStream()) {
+            blobs.put(location, in.readAllBytes());
+        }
+        return location;
+    }
+
+    @Override
+    public BlobContent open(String location) throws IOException {
+        byte[] blob = blobs.get(location);
+        if (blob == null) {
+            throw new NoSuchFileException(location);
+        }
+        return BlobContent.of(ByteBuffer.wrap(blob));
+    }
+
+    @Override
+    public void delete(String location) {
+        blobs.remove(location);
+    }
+
+    public int size() {
+        return blobs.size();
+    }
+}
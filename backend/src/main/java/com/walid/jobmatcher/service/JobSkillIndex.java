@@ -0,0 +1,78 @@
+package com.walid.jobmatcher.service;
+
+import com.walid.jobmatcher.event.SkillOntologyReloadedEvent;
+import com.walid.jobmatcher.matching.MatchScorer;
+import com.walid.jobmatcher.matching.NormalizedSkill;
+import com.walid.jobmatcher.matching.ReverseSkillIndex;
+import com.walid.jobmatcher.matching.SkillHits;
+import com.walid.jobmatcher.repository.JobPostRepository;
+import com.walid.jobmatcher.repository.JobSkillView;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Skill -> job id index for candidate-side recommendations, so a resume never scans every job
+@Service
+@RequiredArgsConstructor
+public class JobSkillIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobSkillIndex.class);
+
+    private final JobPostRepository jobPostRepository;
+    private final MatchingService matchingService;
+
+    private volatile ReverseSkillIndex index = new ReverseSkillIndex();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(10)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    // Required skills are normalized again against the new ontology
+    @EventListener(SkillOntologyReloadedEvent.class)
+    @Order(10)
+    public void onOntologyReloaded() {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        Map<Integer, List<String>> skillsByJob = new HashMap<>();
+        for (JobSkillView row : jobPostRepository.findAllRequiredSkills()) {
+            skillsByJob.computeIfAbsent(Math.toIntExact(row.getJobId()), id -> new ArrayList<>()).add(row.getSkill());
+        }
+        Map<Integer, List<NormalizedSkill>> normalized = new HashMap<>();
+        skillsByJob.forEach((jobId, skills) -> normalized.put(jobId, matchingService.normalize(skills)));
+        index = ReverseSkillIndex.build(normalized);
+        logger.info("Job skill index built: {} jobs in {} ms", index.documentCount(), System.currentTimeMillis() - start);
+    }
+
+    public synchronized void add(Long jobId, List<String> requiredSkills) {
+        if (requiredSkills != null) {
+            index.add(Math.toIntExact(jobId), matchingService.normalize(requiredSkills));
+        }
+    }
+
+    public synchronized void remove(Long jobId) {
+        index.remove(Math.toIntExact(jobId));
+    }
+
+    public SkillHits match(Set<String> skillProfile, MatchScorer scorer) {
+        return index.match(matchingService.canonicalize(skillProfile), scorer);
+    }
+
+    public int size() {
+        return index.documentCount();
+    }
+}
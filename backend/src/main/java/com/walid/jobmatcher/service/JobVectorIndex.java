@@ -0,0 +1,107 @@
+package com.walid.jobmatcher.service;
+
+import com.walid.jobmatcher.matching.HashingEmbedder;
+import com.walid.jobmatcher.matching.HnswIndex;
+import com.walid.jobmatcher.matching.SkillHits;
+import com.walid.jobmatcher.repository.JobPostRepository;
+import com.walid.jobmatcher.repository.JobSkillView;
+import com.walid.jobmatcher.repository.JobTextView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Job embeddings by job id, over title, description and required skills
+@Service
+public class JobVectorIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobVectorIndex.class);
+
+    private final JobPostRepository jobPostRepository;
+    private final HashingEmbedder embedder;
+    private final HnswIndex.Settings settings;
+
+    private volatile HnswIndex index;
+
+    public JobVectorIndex(JobPostRepository jobPostRepository, HashingEmbedder embedder, HnswIndex.Settings settings) {
+        this.jobPostRepository = jobPostRepository;
+        this.embedder = embedder;
+        this.settings = settings;
+        this.index = new HnswIndex(settings);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(10)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        Map<Long, List<String>> skillsByJob = new HashMap<>();
+        for (JobSkillView row : jobPostRepository.findAllRequiredSkills()) {
+            skillsByJob.computeIfAbsent(row.getJobId(), id -> new ArrayList<>()).add(row.getSkill());
+        }
+        HnswIndex rebuilt = new HnswIndex(settings);
+        for (JobTextView job : jobPostRepository.findAllDescriptions()) {
+            List<String> skills = skillsByJob.getOrDefault(job.getId(), List.of());
+            rebuilt.add(Math.toIntExact(job.getId()), embed(job.getTitle(), job.getDescription(), skills));
+        }
+        index = rebuilt;
+        logger.info("Job vector index built: {} jobs in {} ms", rebuilt.size(), System.currentTimeMillis() - start);
+    }
+
+    public synchronized void add(Long jobId, String title, String description, List<String> requiredSkills) {
+        index.add(Math.toIntExact(jobId), embed(title, description, requiredSkills));
+        compactIfNeeded();
+    }
+
+    public synchronized void remove(Long jobId) {
+        index.remove(Math.toIntExact(jobId));
+        compactIfNeeded();
+    }
+
+    public SkillHits nearest(float[] query, int k) {
+        return index.search(query, k);
+    }
+
+    public float similarity(float[] query, Long jobId) {
+        return index.similarity(query, Math.toIntExact(jobId));
+    }
+
+    // The stored embedding when the job is indexed, so it is not computed twice
+    public float[] embedding(Long jobId, String title, String description, List<String> requiredSkills) {
+        float[] vector = index.vector(Math.toIntExact(jobId));
+        return vector != null ? vector : embed(title, description, requiredSkills);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    // ';' ends a phrase, so skills never run into the description or each other
+    private float[] embed(String title, String description, List<String> requiredSkills) {
+        StringBuilder text = new StringBuilder();
+        if (title != null) text.append(title).append(";\n");
+        if (description != null) text.append(description).append(";\n");
+        if (requiredSkills != null) {
+            for (String skill : requiredSkills) {
+                text.append(skill).append(";\n");
+            }
+        }
+        return embedder.embed(text.toString());
+    }
+
+    private void compactIfNeeded() {
+        if (index.deletedCount() > Math.max(64, index.size())) {
+            index = index.compact();
+        }
+    }
+}
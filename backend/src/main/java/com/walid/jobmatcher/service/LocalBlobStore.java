@@ -0,0 +1,77 @@
+package com.walid.jobmatcher.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Blobs as files under a root directory, sharded two levels deep by the first bytes of a
+ * random id ({@code local:3f/a9/3fa9...}) so no directory grows past a few hundred
+ * entries. A blob is written to a temporary file, forced to disk and renamed into place,
+ * so a reader never sees it half written. Reads map the file instead of copying it.
+ */
+public class LocalBlobStore implements BlobStore {
+
+    private static final String SCHEME = "local:";
+    private static final Pattern LOCATION = Pattern.compile("local:([0-9a-f]{2})/([0-9a-f]{2})/([0-9a-f]{32})");
+
+    private final Path root;
+
+    public LocalBlobStore(Path root) throws IOException {
+        this.root = Files.createDirectories(root).toRealPath();
+    }
+
+    @Override
+    public String put(SpooledContent content) throws IOException {
+        String id = UUID.randomUUID().toString().replace("-", "");
+        String location = SCHEME + id.substring(0, 2) + "/" + id.substring(2, 4) + "/" + id;
+        Path file = resolve(location);
+        Path shard = Files.createDirectories(file.getParent());
+        Path partial = Files.createTempFile(shard, id, ".part");
+        try {
+            try (FileChannel out = FileChannel.open(partial, StandardOpenOption.WRITE)) {
+                ByteBuffer view = content.buffer();
+                while (view.hasRemaining()) {
+                    out.write(view);
+                }
+                out.force(true);
+            }
+            Files.move(partial, file, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        return location;
+    }
+
+    @Override
+    public BlobContent open(String location) throws IOException {
+        try (FileChannel channel = FileChannel.open(resolve(location), StandardOpenOption.READ)) {
+            // the mapping stays valid after the channel is closed, and even after the file is deleted
+            return BlobContent.of(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    @Override
+    public void delete(String location) throws IOException {
+        Files.deleteIfExists(resolve(location));
+    }
+
+    // Only locations this store hands out resolve, so a stored path cannot point outside the
+    // root; any other is a blob this store does not have
+    private Path resolve(String location) throws NoSuchFileException {
+        Matcher matcher = LOCATION.matcher(location);
+        if (!matcher.matches()) {
+            throw new NoSuchFileException(location, null, "not a local blob location");
+        }
+        return root.resolve(matcher.group(1)).resolve(matcher.group(2)).resolve(matcher.group(3));
+    }
+}
@@ -0,0 +1,163 @@
+package com.walid.jobmatcher.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.walid.jobmatcher.event.JobPostCreatedEvent;
+import com.walid.jobmatcher.event.ResumeChangedEvent;
+import com.walid.jobmatcher.event.ResumesImportedEvent;
+import com.walid.jobmatcher.event.SkillOntologyReloadedEvent;
+import com.walid.jobmatcher.matching.Bm25Scorer;
+import com.walid.jobmatcher.matching.KeywordScorer;
+import com.walid.jobmatcher.matching.MatchMode;
+import com.walid.jobmatcher.matching.MatchScorer;
+import com.walid.jobmatcher.matching.SkillHits;
+import com.walid.jobmatcher.matching.TopK;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Ranked match pages, bounded by size and age, so repeated refreshes of the same page
+ * skip scoring. Entries are dropped as soon as an event shows their ranking may have
+ * changed: keyword rankings only for the jobs or candidates the change can reach, found
+ * by probing the skill indexes; rankings that depend on the whole resume corpus (BM25
+ * weights, nearest-neighbour search over resumes) on any resume change.
+ * <p>
+ * Every invalidation bumps a generation; a page whose load overlapped one is returned but
+ * not kept, since the invalidation could not see it and it may predate the change.
+ */
+@Service
+public class MatchResultCache {
+
+    public enum Direction {
+        CANDIDATES_FOR_JOB,
+        JOBS_FOR_CANDIDATE
+    }
+
+    public record Key(Direction direction, long subjectId, MatchMode mode, String scorer,
+                      float minScore, int offset, int limit) {
+    }
+
+    private final boolean enabled;
+    private final Cache<Key, TopK.Ranked> cache;
+    private final CandidateSkillIndex candidateSkillIndex;
+    private final JobSkillIndex jobSkillIndex;
+    private final MatchingService matchingService;
+    // guarded by this, as are cache writes and invalidations
+    private long generation;
+
+    public MatchResultCache(@Value("${matching.cache.enabled:true}") boolean enabled,
+                            @Value("${matching.cache.maximum-size:10000}") long maximumSize,
+                            @Value("${matching.cache.ttl:5m}") Duration ttl,
+                            MeterRegistry meterRegistry,
+                            CandidateSkillIndex candidateSkillIndex,
+                            JobSkillIndex jobSkillIndex,
+                            MatchingService matchingService) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.candidateSkillIndex = candidateSkillIndex;
+        this.jobSkillIndex = jobSkillIndex;
+        this.matchingService = matchingService;
+        if (enabled) {
+            // cache.gets{result=hit|miss}, cache.evictions, cache.load.duration, ...
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "match-results");
+        }
+    }
+
+    public TopK.Ranked get(Key key, Function<Key, TopK.Ranked> loader) {
+        if (!enabled) return loader.apply(key);
+        TopK.Ranked cached = cache.getIfPresent(key);
+        if (cached != null) return cached;
+        long loadedAt = generation();
+        TopK.Ranked ranked = loader.apply(key);
+        store(key, ranked, loadedAt);
+        return ranked;
+    }
+
+    @EventListener
+    public void onResumeChanged(ResumeChangedEvent event) {
+        if (!enabled) return;
+        Set<Long> reachableJobs = new HashSet<>();
+        collectJobs(event.previousProfile(), reachableJobs);
+        collectJobs(event.currentProfile(), reachableJobs);
+        invalidate(key -> switch (key.direction()) {
+            case JOBS_FOR_CANDIDATE -> key.subjectId() == event.candidateId() || usesCorpusStatistics(key);
+            case CANDIDATES_FOR_JOB -> key.mode() != MatchMode.KEYWORD || usesCorpusStatistics(key)
+                    || reachableJobs.contains(key.subjectId());
+        });
+    }
+
+    @EventListener
+    public void onJobPostCreated(JobPostCreatedEvent event) {
+        if (!enabled) return;
+        Set<Long> reachableCandidates = new HashSet<>();
+        SkillHits hits = candidateSkillIndex.match(matchingService.normalize(event.requiredSkills()), keywordScorer());
+        for (int id : hits.ids()) {
+            reachableCandidates.add((long) id);
+        }
+        // a new job never changes the resume corpus, so BM25 keyword rankings stay valid
+        invalidate(key -> key.direction() == Direction.JOBS_FOR_CANDIDATE
+                && (key.mode() != MatchMode.KEYWORD || reachableCandidates.contains(key.subjectId())));
+    }
+
+    // After the skill indexes are rebuilt, so no page is cached from the old ones
+    @EventListener(SkillOntologyReloadedEvent.class)
+    @Order(20)
+    public void onOntologyReloaded() {
+        invalidate(key -> true);
+    }
+
+    // After the candidate indexes are rebuilt over the imported resumes
+    @EventListener(ResumesImportedEvent.class)
+    @Order(20)
+    public void onResumesImported() {
+        invalidate(key -> true);
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private synchronized long generation() {
+        return generation;
+    }
+
+    private synchronized void store(Key key, TopK.Ranked ranked, long loadedAt) {
+        if (generation == loadedAt) {
+            cache.put(key, ranked);
+        }
+    }
+
+    private synchronized void invalidate(Predicate<Key> stale) {
+        generation++;
+        cache.asMap().keySet().removeIf(stale);
+    }
+
+    private void collectJobs(Set<String> profile, Set<Long> jobs) {
+        if (profile == null) return;
+        for (int id : jobSkillIndex.match(profile, keywordScorer()).ids()) {
+            jobs.add((long) id);
+        }
+    }
+
+    private MatchScorer keywordScorer() {
+        return matchingService.scorer(KeywordScorer.NAME);
+    }
+
+    private static boolean usesCorpusStatistics(Key key) {
+        return Bm25Scorer.NAME.equals(key.scorer());
+    }
+}
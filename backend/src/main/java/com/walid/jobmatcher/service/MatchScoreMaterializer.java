@@ -0,0 +1,322 @@
+package com.walid.jobmatcher.service;
+
+import com.walid.jobmatcher.entity.JobPost;
+import com.walid.jobmatcher.entity.MatchCount;
+import com.walid.jobmatcher.event.JobPostCreatedEvent;
+import com.walid.jobmatcher.event.ResumeChangedEvent;
+import com.walid.jobmatcher.event.ResumesImportedEvent;
+import com.walid.jobmatcher.event.SkillOntologyReloadedEvent;
+import com.walid.jobmatcher.matching.KeywordScorer;
+import com.walid.jobmatcher.matching.MatchScorer;
+import com.walid.jobmatcher.matching.SkillHits;
+import com.walid.jobmatcher.repository.JobPostRepository;
+import com.walid.jobmatcher.repository.ResumeRepository;
+import com.walid.jobmatcher.repository.ResumeSkillProfileView;
+import com.walid.jobmatcher.repository.ResumeTextView;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the match_scores table in step with jobs and resumes, off the request path. A
+ * new or changed resume is rescored against every job, a new job against every resume,
+ * on a single background thread. Each refresh replaces all rows of its job or candidate
+ * in one transaction, so running it twice, or after a crash, leaves the same rows.
+ * <p>
+ * Repeated changes to the same job or candidate before its refresh runs are coalesced.
+ * The number of rows of each job and candidate is kept in match_counts by the same
+ * transactions, for ranking totals. Only the keyword scorer is materialized: BM25 and
+ * semantic scores depend on the whole corpus and would need every row rewritten on any
+ * change.
+ */
+@Service
+public class MatchScoreMaterializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(MatchScoreMaterializer.class);
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String DELETE_FOR_JOB = "delete from match_scores where job_id = ?";
+    private static final String DELETE_FOR_CANDIDATE = "delete from match_scores where candidate_id = ?";
+    private static final String INSERT = "insert into match_scores (job_id, candidate_id, score) values (?, ?, ?)";
+
+    // match_counts: the subject's own total is replaced, the other side's totals are shifted by
+    // one for each row deleted or inserted, creating them first where missing
+    private static final String DELETE_COUNT = "delete from match_counts where subject_type = ? and subject_id = ?";
+    private static final String INSERT_COUNT = "insert into match_counts (subject_type, subject_id, total) values (?, ?, ?)";
+    private static final String SHIFT_COUNTS = "update match_counts set total = total + ? where subject_type = '%s' " +
+            "and subject_id in (select %s from match_scores where %s = ?)";
+    private static final String CREATE_COUNTS = "insert into match_counts (subject_type, subject_id, total) " +
+            "select '%1$s', s.%2$s, 0 from match_scores s where s.%3$s = ? and not exists " +
+            "(select 1 from match_counts c where c.subject_type = '%1$s' and c.subject_id = s.%2$s)";
+    private static final String RECOUNT = "insert into match_counts (subject_type, subject_id, total) " +
+            "select '%s', %s, count(*) from match_scores group by %s";
+
+    public record Status(boolean enabled, int pendingJobs, int pendingCandidates, boolean refreshing,
+                         long oldestPendingMillis, long lastLagMillis, long refreshed, long failed) {
+    }
+
+    private final boolean enabled;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JobPostRepository jobPostRepository;
+    private final ResumeRepository resumeRepository;
+    private final CandidateSkillIndex candidateSkillIndex;
+    private final JobSkillIndex jobSkillIndex;
+    private final MatchingService matchingService;
+
+    // id -> System.nanoTime() of the oldest change not yet written
+    private final Map<Long, Long> pendingJobs = new ConcurrentHashMap<>();
+    private final Map<Long, Long> pendingCandidates = new ConcurrentHashMap<>();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "match-materializer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean refreshing;
+    private volatile long lastLagNanos;
+    private final AtomicLong refreshed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public MatchScoreMaterializer(@Value("${matching.materialized.enabled:false}") boolean enabled,
+                                  JdbcTemplate jdbcTemplate,
+                                  TransactionTemplate transactionTemplate,
+                                  JobPostRepository jobPostRepository,
+                                  ResumeRepository resumeRepository,
+                                  CandidateSkillIndex candidateSkillIndex,
+                                  JobSkillIndex jobSkillIndex,
+                                  MatchingService matchingService,
+                                  MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.jobPostRepository = jobPostRepository;
+        this.resumeRepository = resumeRepository;
+        this.candidateSkillIndex = candidateSkillIndex;
+        this.jobSkillIndex = jobSkillIndex;
+        this.matchingService = matchingService;
+        if (enabled) {
+            Gauge.builder("match.scores.backlog", this, m -> m.pendingJobs.size() + m.pendingCandidates.size())
+                    .description("Jobs and candidates waiting to be rescored")
+                    .register(meterRegistry);
+            Gauge.builder("match.scores.lag", this, m -> m.oldestPendingNanos() / 1e9)
+                    .description("Age of the oldest change not yet written")
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Reads are only served from the table for the scorer it holds
+    public boolean serves(String scorer) {
+        return enabled && KeywordScorer.NAME.equals(scorer);
+    }
+
+    // Runs after the skill indexes are built; rescoring every job rewrites the whole table.
+    // Totals are recounted first, on the worker, so later refreshes shift totals that match the rows.
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(20)
+    public void onApplicationReady() {
+        if (!enabled) return;
+        worker.execute(() -> transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("delete from match_counts");
+            jdbcTemplate.update(RECOUNT.formatted(MatchCount.JOB, "job_id", "job_id"));
+            jdbcTemplate.update(RECOUNT.formatted(MatchCount.CANDIDATE, "candidate_id", "candidate_id"));
+        }));
+        List<Long> jobIds = jobPostRepository.findAllIds();
+        jobIds.forEach(id -> enqueue(pendingJobs, id));
+        logger.info("Queued {} jobs for match score materialization", jobIds.size());
+    }
+
+    // Both skill indexes were rebuilt; every job's rows may change
+    @EventListener(SkillOntologyReloadedEvent.class)
+    @Order(20)
+    public void onOntologyReloaded() {
+        if (!enabled) return;
+        jobPostRepository.findAllIds().forEach(id -> enqueue(pendingJobs, id));
+    }
+
+    @EventListener
+    public void onResumeChanged(ResumeChangedEvent event) {
+        if (enabled) enqueue(pendingCandidates, event.candidateId());
+    }
+
+    @EventListener
+    @Order(20)
+    public void onResumesImported(ResumesImportedEvent event) {
+        if (enabled) event.candidateIds().forEach(id -> enqueue(pendingCandidates, id));
+    }
+
+    @EventListener
+    public void onJobPostCreated(JobPostCreatedEvent event) {
+        if (enabled) enqueue(pendingJobs, event.jobId());
+    }
+
+    public Status status() {
+        return new Status(enabled, pendingJobs.size(), pendingCandidates.size(), refreshing,
+                TimeUnit.NANOSECONDS.toMillis(oldestPendingNanos()), TimeUnit.NANOSECONDS.toMillis(lastLagNanos),
+                refreshed.get(), failed.get());
+    }
+
+    /**
+     * Replaces the job's rows with its scores against every indexed resume; a job that
+     * no longer exists is left with none.
+     */
+    public int refreshJob(long jobId) {
+        List<JobPost> jobs = jobPostRepository.findWithRequiredSkillsByIdIn(List.of(jobId));
+        SkillHits hits = jobs.isEmpty() ? SkillHits.NONE
+                : candidateSkillIndex.match(matchingService.normalize(jobs.get(0).getRequiredSkills()), keywordScorer());
+        transactionTemplate.executeWithoutResult(status -> {
+            shiftCounts(jobId, true, -1);
+            jdbcTemplate.update(DELETE_FOR_JOB, jobId);
+            insert(jobId, hits, true);
+            shiftCounts(jobId, true, 1);
+            replaceCount(MatchCount.JOB, jobId, hits.size());
+        });
+        return hits.size();
+    }
+
+    // Replaces the candidate's rows with the resume's scores against every indexed job
+    public int refreshCandidate(long candidateId) {
+        SkillHits hits = resumeRepository.findSkillProfileByCandidateId(candidateId)
+                .map(resume -> jobSkillIndex.match(skillProfile(resume), keywordScorer()))
+                .orElse(SkillHits.NONE);
+        transactionTemplate.executeWithoutResult(status -> {
+            shiftCounts(candidateId, false, -1);
+            jdbcTemplate.update(DELETE_FOR_CANDIDATE, candidateId);
+            insert(candidateId, hits, false);
+            shiftCounts(candidateId, false, 1);
+            replaceCount(MatchCount.CANDIDATE, candidateId, hits.size());
+        });
+        return hits.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    private void enqueue(Map<Long, Long> pending, Long id) {
+        pending.putIfAbsent(id, System.nanoTime());
+        if (draining.compareAndSet(false, true)) {
+            worker.execute(this::drain);
+        }
+    }
+
+    // A change arriving while its id is being refreshed is queued again, not lost
+    private void drain() {
+        do {
+            try {
+                while (!pendingJobs.isEmpty() || !pendingCandidates.isEmpty()) {
+                    drain(pendingJobs, true);
+                    drain(pendingCandidates, false);
+                }
+            } finally {
+                draining.set(false);
+            }
+        } while ((!pendingJobs.isEmpty() || !pendingCandidates.isEmpty()) && draining.compareAndSet(false, true));
+    }
+
+    private void drain(Map<Long, Long> pending, boolean jobs) {
+        for (Map.Entry<Long, Long> entry : pending.entrySet()) {
+            long id = entry.getKey();
+            if (!pending.remove(id, entry.getValue())) continue;
+            refreshing = true;
+            try {
+                if (jobs) refreshJob(id);
+                else refreshCandidate(id);
+                refreshed.incrementAndGet();
+                lastLagNanos = System.nanoTime() - entry.getValue();
+            } catch (RuntimeException e) {
+                // not retried: the next change, or the next startup, rewrites these rows
+                failed.incrementAndGet();
+                logger.error("Failed to materialize match scores for {} {}: {}", jobs ? "job" : "candidate", id,
+                        e.getMessage(), e);
+            } finally {
+                refreshing = false;
+            }
+        }
+    }
+
+    private void insert(long subjectId, SkillHits hits, boolean subjectIsJob) {
+        int[] ids = hits.ids();
+        float[] scores = hits.scores();
+        for (int from = 0; from < ids.length; from += BATCH_SIZE) {
+            int start = from;
+            int count = Math.min(BATCH_SIZE, ids.length - from);
+            jdbcTemplate.batchUpdate(INSERT, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    ps.setLong(1, subjectIsJob ? subjectId : ids[start + i]);
+                    ps.setLong(2, subjectIsJob ? ids[start + i] : subjectId);
+                    ps.setFloat(3, scores[start + i]);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return count;
+                }
+            });
+        }
+    }
+
+    // Shifts the totals of everything the subject's current rows point at
+    private void shiftCounts(long subjectId, boolean subjectIsJob, int delta) {
+        String type = subjectIsJob ? MatchCount.CANDIDATE : MatchCount.JOB;
+        String column = subjectIsJob ? "candidate_id" : "job_id";
+        String subjectColumn = subjectIsJob ? "job_id" : "candidate_id";
+        if (delta > 0) {
+            jdbcTemplate.update(CREATE_COUNTS.formatted(type, column, subjectColumn), subjectId);
+        }
+        jdbcTemplate.update(SHIFT_COUNTS.formatted(type, column, subjectColumn), delta, subjectId);
+    }
+
+    private void replaceCount(String subjectType, long subjectId, int total) {
+        jdbcTemplate.update(DELETE_COUNT, subjectType, subjectId);
+        jdbcTemplate.update(INSERT_COUNT, subjectType, subjectId, total);
+    }
+
+    private long oldestPendingNanos() {
+        long now = System.nanoTime();
+        long oldest = 0;
+        for (long enqueuedAt : pendingJobs.values()) oldest = Math.max(oldest, now - enqueuedAt);
+        for (long enqueuedAt : pendingCandidates.values()) oldest = Math.max(oldest, now - enqueuedAt);
+        return oldest;
+    }
+
+    // Resumes not yet reached by the backfill are profiled on the fly
+    private Set<String> skillProfile(ResumeSkillProfileView resume) {
+        if (resume.getSkillProfile() != null) return resume.getSkillProfile();
+        return matchingService.buildSkillProfile(resumeRepository.findTextByCandidateId(resume.getCandidateId())
+                .map(ResumeTextView::getExtractedText).orElse(null));
+    }
+
+    private MatchScorer keywordScorer() {
+        return matchingService.scorer(KeywordScorer.NAME);
+    }
+}
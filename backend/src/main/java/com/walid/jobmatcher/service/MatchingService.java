@@ -1,19 +1,229 @@
 package com.walid.jobmatcher.service;
 
+import com.walid.jobmatcher.matching.MatchScorer;
+import com.walid.jobmatcher.matching.NormalizedSkill;
+import com.walid.jobmatcher.matching.RangeScorer;
+import com.walid.jobmatcher.matching.SkillHits;
+import com.walid.jobmatcher.matching.SkillOntology;
+import com.walid.jobmatcher.matching.SkillTokenizer;
+import com.walid.jobmatcher.matching.TopK;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntToDoubleFunction;
 
 @Service
 public class MatchingService {
 
-    public int calculateMatchScore(List<String> requiredSkills, String resumeText) {
-        if (resumeText == null || resumeText.isBlank()) return 0;
+    public static final int MAX_LIMIT = 200;
+    public static final int MAX_OFFSET = 10_000;
+
+    private final Map<String, MatchScorer> scorers = new LinkedHashMap<>();
+    private final float semanticWeight;
+    private final ForkJoinPool scoringPool;
+    private final int parallelThreshold;
+    private final int chunkSize;
+    private final SkillOntologyService skillOntologyService;
+    private final Timer hitSelection;
+    private final Timer serialScoring;
+    private final Timer parallelScoring;
+
+    public MatchingService(List<MatchScorer> scorers,
+                           ForkJoinPool scoringPool,
+                           SkillOntologyService skillOntologyService,
+                           MeterRegistry meterRegistry,
+                           @Value("${matching.semantic.hybrid-weight:0.5}") float semanticWeight,
+                           @Value("${matching.parallel.threshold:50000}") int parallelThreshold,
+                           @Value("${matching.parallel.chunk-size:16384}") int chunkSize) {
+        for (MatchScorer scorer : scorers) {
+            this.scorers.put(scorer.name(), scorer);
+        }
+        if (semanticWeight < 0 || semanticWeight > 1) {
+            throw new IllegalArgumentException("matching.semantic.hybrid-weight must be between 0 and 1");
+        }
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("matching.parallel.chunk-size must be positive");
+        }
+        this.semanticWeight = semanticWeight;
+        this.scoringPool = scoringPool;
+        this.parallelThreshold = parallelThreshold;
+        this.chunkSize = chunkSize;
+        this.skillOntologyService = skillOntologyService;
+        // match.scoring{path=hits|serial|parallel}: one page selected from a pool
+        this.hitSelection = scoringTimer(meterRegistry, "hits");
+        this.serialScoring = scoringTimer(meterRegistry, "serial");
+        this.parallelScoring = scoringTimer(meterRegistry, "parallel");
+    }
+
+    private static Timer scoringTimer(MeterRegistry meterRegistry, String path) {
+        return Timer.builder("match.scoring")
+                .description("Time to score a pool and select one page of matches")
+                .tag("path", path)
+                .register(meterRegistry);
+    }
+
+    public MatchScorer scorer(String name) {
+        MatchScorer scorer = scorers.get(name);
+        if (scorer == null) {
+            throw new IllegalArgumentException("Unknown scorer: " + name + ". Available: " + scorers.keySet());
+        }
+        return scorer;
+    }
+
+    // Stored at upload with the canonical terms of the skills the ontology knew then
+    public Set<String> buildSkillProfile(String resumeText) {
+        return canonicalize(SkillTokenizer.profile(resumeText));
+    }
+
+    // Adds the canonical terms of the current ontology to a stored profile
+    public Set<String> canonicalize(Set<String> skillProfile) {
+        return skillOntologyService.current().canonicalize(skillProfile);
+    }
+
+    public List<NormalizedSkill> normalize(List<String> requiredSkills) {
+        SkillOntology ontology = skillOntologyService.current();
+        return requiredSkills.stream().map(skill -> NormalizedSkill.of(skill, ontology)).toList();
+    }
+
+    public NormalizedSkill normalize(String requiredSkill) {
+        return NormalizedSkill.of(requiredSkill, skillOntologyService.current());
+    }
+
+    // Whole-word comparison against a stored profile: "Java" no longer matches "JavaScript"
+    public int calculateMatchScore(List<NormalizedSkill> requiredSkills, Set<String> skillProfile) {
+        if (skillProfile == null || skillProfile.isEmpty()) return 0;
         int score = 0;
-        for (String skill : requiredSkills) {
-            if (resumeText.toLowerCase().contains(skill.toLowerCase())) {
+        for (NormalizedSkill skill : requiredSkills) {
+            if (skill.matches(skillProfile)) {
                 score++;
             }
         }
         return score;
     }
+
+    /**
+     * Hybrid ranking over the union of both hit lists: keyword scores are scaled so the
+     * best keyword hit is 1, then mixed with cosine similarity by the configured weight.
+     * Keyword hits the nearest-neighbour search did not return get their exact similarity.
+     */
+    public SkillHits blend(SkillHits keyword, SkillHits semantic, IntToDoubleFunction similarity) {
+        float maxKeyword = 0;
+        for (float score : keyword.scores()) {
+            maxKeyword = Math.max(maxKeyword, score);
+        }
+        int[] ids = new int[keyword.size() + semantic.size()];
+        float[] scores = new float[ids.length];
+        int n = 0;
+        int k = 0;
+        int s = 0;
+        // both lists are ordered by id
+        while (k < keyword.size() || s < semantic.size()) {
+            int keywordId = k < keyword.size() ? keyword.ids()[k] : Integer.MAX_VALUE;
+            int semanticId = s < semantic.size() ? semantic.ids()[s] : Integer.MAX_VALUE;
+            int id = Math.min(keywordId, semanticId);
+            float keywordScore = keywordId == id && maxKeyword > 0 ? keyword.scores()[k] / maxKeyword : 0f;
+            if (keywordId == id) k++;
+            double cosine = semanticId == id ? semantic.scores()[s++] : similarity.applyAsDouble(id);
+            float semanticScore = Double.isNaN(cosine) ? 0f : (float) Math.max(0, cosine);
+            ids[n] = id;
+            scores[n++] = semanticWeight * semanticScore + (1 - semanticWeight) * keywordScore;
+        }
+        return new SkillHits(Arrays.copyOf(ids, n), Arrays.copyOf(scores, n));
+    }
+
+    // Bounded-heap selection of one page of hits: memory is O(offset + limit), not O(hits)
+    public TopK.Ranked selectTop(SkillHits hits, float minScore, int offset, int limit) {
+        long start = System.nanoTime();
+        TopK topK = new TopK(window(offset, limit));
+        int[] ids = hits.ids();
+        float[] scores = hits.scores();
+        for (int i = 0; i < ids.length; i++) {
+            if (scores[i] >= minScore) {
+                topK.offer(ids[i], scores[i]);
+            }
+        }
+        TopK.Ranked ranked = topK.ranked(offset);
+        hitSelection.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return ranked;
+    }
+
+    /**
+     * Scores the query chunk by chunk and selects one page. Small id spaces are scored
+     * serially on the caller's thread; larger ones on the scoring pool, each chunk into
+     * its own heap, with heaps merged pairwise as the fork/join tree unwinds.
+     */
+    public TopK.Ranked selectTop(RangeScorer query, float minScore, int offset, int limit) {
+        long start = System.nanoTime();
+        int window = window(offset, limit);
+        TopK top;
+        Timer timer;
+        if (query.idLimit() < parallelThreshold) {
+            top = new TopK(window);
+            query.scoreRange(0, query.idLimit(), minScore, top);
+            timer = serialScoring;
+        } else {
+            top = scoringPool.invoke(new ChunkTask(query, 0, query.idLimit(), minScore, window, chunkSize));
+            timer = parallelScoring;
+        }
+        TopK.Ranked ranked = top.ranked(offset);
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return ranked;
+    }
+
+    private static final class ChunkTask extends RecursiveTask<TopK> {
+        private final RangeScorer query;
+        private final int fromId;
+        private final int toId;
+        private final float minScore;
+        private final int window;
+        private final int chunkSize;
+
+        ChunkTask(RangeScorer query, int fromId, int toId, float minScore, int window, int chunkSize) {
+            this.query = query;
+            this.fromId = fromId;
+            this.toId = toId;
+            this.minScore = minScore;
+            this.window = window;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected TopK compute() {
+            int chunks = (toId - fromId + chunkSize - 1) / chunkSize;
+            if (chunks <= 1) {
+                TopK top = new TopK(window);
+                query.scoreRange(fromId, toId, minScore, top);
+                return top;
+            }
+            // split on a chunk boundary so every leaf covers whole chunks
+            int middle = fromId + chunks / 2 * chunkSize;
+            ChunkTask left = new ChunkTask(query, fromId, middle, minScore, window, chunkSize);
+            left.fork();
+            TopK right = new ChunkTask(query, middle, toId, minScore, window, chunkSize).compute();
+            TopK merged = left.join();
+            merged.merge(right);
+            return merged;
+        }
+    }
+
+    // Rejects paging parameters out of range
+    public void validateWindow(int offset, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        if (offset < 0 || offset > MAX_OFFSET) {
+            throw new IllegalArgumentException("offset must be between 0 and " + MAX_OFFSET);
+        }
+    }
+
+    // Number of best hits a page needs, after validating the paging parameters
+    public int window(int offset, int limit) {
+        validateWindow(offset, limit);
+        return offset + limit;
+    }
 }
@@ -0,0 +1,217 @@
+package com.walid.jobmatcher.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Local copies of resume files stored on Cloudinary, least recently used first out once
+ * the directory grows past {@code max-size}. Stored files never change under a URL, so an
+ * entry stays valid until it is evicted or the file is destroyed. Concurrent misses on the
+ * same URL share one download. Callers get an open channel, which stays readable even if
+ * the entry is evicted meanwhile.
+ * <p>
+ * Lookups count as {@code resume.file.cache{result=hit|miss}}; {@code resume.file.cache.size}
+ * is the bytes on disk.
+ */
+@Service
+@ConditionalOnProperty(name = "resume.storage.backend", havingValue = "cloudinary", matchIfMissing = true)
+public class ResumeFileCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResumeFileCache.class);
+    private static final String PARTIAL_SUFFIX = ".part";
+
+    private final Path directory;
+    private final long maxSize;
+    // key -> file size in access order; guarded by this
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+    private final Map<String, CompletableFuture<Void>> loading = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public ResumeFileCache(@Value("${resume.file-cache.directory:${java.io.tmpdir}/jobmatcher/resume-files}") Path directory,
+                           @Value("${resume.file-cache.max-size:1GB}") DataSize maxSize,
+                           MeterRegistry meterRegistry) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.maxSize = maxSize.toBytes();
+        this.hits = meterRegistry.counter("resume.file.cache", "result", "hit");
+        this.misses = meterRegistry.counter("resume.file.cache", "result", "miss");
+        Gauge.builder("resume.file.cache.size", this, ResumeFileCache::size)
+                .description("Bytes of resume files cached on disk")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        restore();
+    }
+
+    /**
+     * Opens the cached file for a URL, downloading it from {@code source} first on a miss.
+     * The caller closes the channel.
+     */
+    public FileChannel open(String fileUrl, Callable<InputStream> source) throws IOException {
+        String key = key(fileUrl);
+        Path file = directory.resolve(key);
+        while (true) {
+            if (contains(key)) {
+                try {
+                    FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+                    hits.increment();
+                    return channel;
+                } catch (NoSuchFileException e) {
+                    // evicted between the lookup and the open
+                    remove(key);
+                }
+            }
+            CompletableFuture<Void> download = new CompletableFuture<>();
+            CompletableFuture<Void> running = loading.putIfAbsent(key, download);
+            if (running == null) {
+                misses.increment();
+                return download(key, file, source, download);
+            }
+            try {
+                running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+            }
+        }
+    }
+
+    public void evict(String fileUrl) {
+        String key = key(fileUrl);
+        remove(key);
+        delete(directory.resolve(key));
+    }
+
+    public synchronized long size() {
+        return size;
+    }
+
+    // File name of a URL's entry, also usable as a validator for the file's content
+    public static String key(String fileUrl) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(fileUrl.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private FileChannel download(String key, Path file, Callable<InputStream> source,
+                                 CompletableFuture<Void> download) throws IOException {
+        Path partial = directory.resolve(key + PARTIAL_SUFFIX);
+        try {
+            try (InputStream in = source.call()) {
+                Files.copy(in, partial, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.move(partial, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            // opened before it is indexed, so making room for it cannot pull it away
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+            add(key, channel.size());
+            download.complete(null);
+            return channel;
+        } catch (Exception e) {
+            delete(partial);
+            download.completeExceptionally(e);
+            if (e instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Could not download " + key + ": " + e.getMessage(), e);
+        } finally {
+            loading.remove(key);
+        }
+    }
+
+    private synchronized boolean contains(String key) {
+        return entries.get(key) != null;
+    }
+
+    private void add(String key, long length) {
+        List<String> evicted = new ArrayList<>();
+        synchronized (this) {
+            Long previous = entries.put(key, length);
+            size += length - (previous == null ? 0 : previous);
+            Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+            while (size > maxSize && eldest.hasNext()) {
+                Map.Entry<String, Long> entry = eldest.next();
+                size -= entry.getValue();
+                evicted.add(entry.getKey());
+                eldest.remove();
+            }
+        }
+        evicted.forEach(victim -> delete(directory.resolve(victim)));
+    }
+
+    private synchronized void remove(String key) {
+        Long length = entries.remove(key);
+        if (length != null) {
+            size -= length;
+        }
+    }
+
+    // Indexes the files left by a previous run, oldest first, and drops unfinished downloads
+    private void restore() throws IOException {
+        record Cached(String key, long size, long modified) {
+        }
+        List<Cached> cached = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(PARTIAL_SUFFIX)) {
+                    delete(file);
+                    continue;
+                }
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                if (attributes.isRegularFile()) {
+                    cached.add(new Cached(name, attributes.size(), attributes.lastModifiedTime().toMillis()));
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        cached.sort(Comparator.comparingLong(Cached::modified));
+        cached.forEach(entry -> add(entry.key(), entry.size()));
+        if (!cached.isEmpty()) {
+            logger.info("Resume file cache holds {} files, {} bytes", entries.size(), size());
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete cached resume file {}: {}", file, e.getMessage());
+        }
+    }
+}
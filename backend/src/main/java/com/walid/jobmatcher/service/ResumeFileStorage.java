@@ -0,0 +1,33 @@
+package com.walid.jobmatcher.service;
+
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+
+/**
+ * Resume files in the configured {@link BlobStore}. The file path kept on a resume is the
+ * location this returns from {@link #upload}.
+ */
+@Service
+public class ResumeFileStorage {
+
+    private final BlobStore blobStore;
+
+    public ResumeFileStorage(BlobStore blobStore) {
+        this.blobStore = blobStore;
+    }
+
+    // Stores the content and returns its location
+    public String upload(SpooledContent content) throws Exception {
+        return blobStore.put(content);
+    }
+
+    public void destroy(String fileUrl) throws Exception {
+        blobStore.delete(fileUrl);
+    }
+
+    // The stored file opened for serving; the caller closes it
+    public BlobContent open(String fileUrl) throws IOException {
+        return blobStore.open(fileUrl);
+    }
+}
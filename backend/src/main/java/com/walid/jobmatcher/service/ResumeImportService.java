@@ -0,0 +1,663 @@
+package com.walid.jobmatcher.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.walid.jobmatcher.entity.Resume;
+import com.walid.jobmatcher.event.ResumesImportedEvent;
+import com.walid.jobmatcher.exception.TooManyRequestsException;
+import com.walid.jobmatcher.repository.CandidateRepository;
+import com.walid.jobmatcher.repository.ResumeContentView;
+import com.walid.jobmatcher.repository.ResumeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Bulk resume loading for onboarding: a zip archive, or a directory under
+ * {@code resume.import.directory-root}, holding the files and a {@code manifest.csv} of
+ * {@code file,candidateId} lines. One import thread reads the files; at most
+ * {@code parallelism} of them are uploaded to storage and parsed on the extraction pool at
+ * once, and files whose content hash is already stored, or seen earlier in the import,
+ * reuse that file and text. Parsed resumes replace the candidates' current ones in batches
+ * of {@code batch-size}, each one transaction with batched inserts, and the candidate
+ * indexes are rebuilt once at the end through a {@link ResumesImportedEvent}.
+ * <p>
+ * One import runs at a time. Its progress and throughput are polled through {@link #find},
+ * until {@code retention} after it finishes.
+ */
+@Service
+public class ResumeImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResumeImportService.class);
+    static final String MANIFEST = "manifest.csv";
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final Duration RETRY_AFTER = Duration.ofMinutes(1);
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    // Progress of one import; written by the import, read by status requests
+    public static final class ImportJob {
+        private final String id;
+        private final String source;
+        private final Instant startedAt = Instant.now();
+        private final int total;
+        private final AtomicInteger imported = new AtomicInteger();
+        private final AtomicInteger deduplicated = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicLong bytesRead = new AtomicLong();
+        private final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+        private volatile Status status = Status.RUNNING;
+        private volatile String error;
+        private volatile Instant finishedAt;
+
+        private ImportJob(String id, String source, int total) {
+            this.id = id;
+            this.source = source;
+            this.total = total;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getSource() {
+            return source;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public int getImported() {
+            return imported.get();
+        }
+
+        public int getDeduplicated() {
+            return deduplicated.get();
+        }
+
+        public int getFailed() {
+            return failed.get();
+        }
+
+        public long getBytesRead() {
+            return bytesRead.get();
+        }
+
+        // Why the whole import stopped, when it did
+        public String getError() {
+            return error;
+        }
+
+        public Instant getStartedAt() {
+            return startedAt;
+        }
+
+        public Instant getFinishedAt() {
+            return finishedAt;
+        }
+
+        // The first errors only; the failed count covers the rest
+        public List<String> getErrors() {
+            synchronized (errors) {
+                return List.copyOf(errors);
+            }
+        }
+
+        public double getDocumentsPerSecond() {
+            Instant end = finishedAt != null ? finishedAt : Instant.now();
+            double seconds = Math.max(0.001, Duration.between(startedAt, end).toMillis() / 1000.0);
+            return (imported.get() + failed.get()) / seconds;
+        }
+
+        private void fail(String fileName, Throwable cause) {
+            failed.incrementAndGet();
+            synchronized (errors) {
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(fileName + ": " + cause.getMessage());
+                }
+            }
+        }
+    }
+
+    private record ManifestEntry(String fileName, Long candidateId) {
+    }
+
+    private record Stored(String fileUrl, String text, Set<String> skillProfile, String contentHash, boolean reused) {
+    }
+
+    // content is kept only for reused files, in case the file is gone by the time the row is written
+    private record Row(ManifestEntry entry, Stored stored, SpooledContent content) {
+    }
+
+    // Where an import's files come from; closing it removes anything the import created
+    private interface Source extends Closeable {
+        byte[] read(String fileName) throws IOException;
+    }
+
+    private final ResumeFileStorage resumeFileStorage;
+    private final ResumeTextExtractor resumeTextExtractor;
+    private final CandidateRepository candidateRepository;
+    private final ResumeRepository resumeRepository;
+    private final MatchingService matchingService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final Path directoryRoot;
+    private final long maxArchiveSize;
+    private final long maxFileSize;
+    private final int parallelism;
+    private final int batchSize;
+    private final Duration timeout;
+    private final ExecutorService importExecutor;
+    private final ExecutorService uploadExecutor;
+    private final AtomicBoolean busy = new AtomicBoolean();
+    private final Cache<String, ImportJob> jobs;
+
+    public ResumeImportService(@Value("${resume.import.directory-root:}") String directoryRoot,
+                               @Value("${resume.import.max-archive-size:2GB}") DataSize maxArchiveSize,
+                               @Value("${resume.import.max-file-size:5MB}") DataSize maxFileSize,
+                               @Value("${resume.import.parallelism:16}") int parallelism,
+                               @Value("${resume.import.batch-size:500}") int batchSize,
+                               @Value("${resume.import.upload-threads:8}") int uploadThreads,
+                               @Value("${resume.import.timeout:120s}") Duration timeout,
+                               @Value("${resume.import.retention:24h}") Duration retention,
+                               ResumeFileStorage resumeFileStorage,
+                               ResumeTextExtractor resumeTextExtractor,
+                               CandidateRepository candidateRepository,
+                               ResumeRepository resumeRepository,
+                               MatchingService matchingService,
+                               ApplicationEventPublisher eventPublisher,
+                               TransactionTemplate transactionTemplate,
+                               MeterRegistry meterRegistry) {
+        if (parallelism < 1 || batchSize < 1 || uploadThreads < 1) {
+            throw new IllegalArgumentException("resume.import.parallelism, batch-size and upload-threads must be positive");
+        }
+        this.directoryRoot = StringUtils.hasText(directoryRoot) ? Path.of(directoryRoot).toAbsolutePath().normalize() : null;
+        this.maxArchiveSize = maxArchiveSize.toBytes();
+        this.maxFileSize = maxFileSize.toBytes();
+        this.parallelism = parallelism;
+        this.batchSize = batchSize;
+        this.timeout = timeout;
+        // a running import never expires; a finished one is put again, which starts its retention
+        this.jobs = Caffeine.newBuilder()
+                .expireAfter(Expiry.writing((String id, ImportJob job) ->
+                        job.getFinishedAt() == null ? ChronoUnit.FOREVER.getDuration() : retention))
+                .build();
+        this.resumeFileStorage = resumeFileStorage;
+        this.resumeTextExtractor = resumeTextExtractor;
+        this.candidateRepository = candidateRepository;
+        this.resumeRepository = resumeRepository;
+        this.matchingService = matchingService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.importExecutor = Executors.newSingleThreadExecutor(daemon("resume-import"));
+        this.uploadExecutor = Executors.newFixedThreadPool(uploadThreads, daemon("resume-import-upload"));
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Copies a zip archive to a temp file, reads its manifest and starts the import.
+     *
+     * @throws IllegalArgumentException when the archive is too large, unreadable or has no valid manifest
+     * @throws TooManyRequestsException when another import is running
+     */
+    public ImportJob importArchive(InputStream archive) throws IOException {
+        acquire();
+        Path file = null;
+        try {
+            file = Files.createTempFile("resume-import-", ".zip");
+            copyCapped(archive, file);
+            ZipFile zip = openZip(file);
+            Path zipPath = file;
+            Source source = new Source() {
+                @Override
+                public byte[] read(String fileName) throws IOException {
+                    ZipEntry entry = zip.getEntry(fileName);
+                    if (entry == null || entry.isDirectory()) {
+                        throw new IllegalArgumentException("not in the archive");
+                    }
+                    try (InputStream in = zip.getInputStream(entry)) {
+                        return readCapped(in);
+                    }
+                }
+
+                @Override
+                public void close() throws IOException {
+                    zip.close();
+                    Files.deleteIfExists(zipPath);
+                }
+            };
+            return start("archive", source);
+        } catch (IOException | RuntimeException e) {
+            busy.set(false);
+            if (file != null) {
+                Files.deleteIfExists(file);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Starts an import of a directory, relative to {@code resume.import.directory-root}.
+     *
+     * @throws IllegalArgumentException when directory imports are disabled, or the directory or its manifest is invalid
+     * @throws TooManyRequestsException when another import is running
+     */
+    public ImportJob importDirectory(String relativePath) throws IOException {
+        if (directoryRoot == null) {
+            throw new IllegalArgumentException("Directory imports are disabled; set resume.import.directory-root");
+        }
+        Path directory = directoryRoot.resolve(relativePath).normalize();
+        if (!directory.startsWith(directoryRoot) || !Files.isDirectory(directory)) {
+            throw new IllegalArgumentException("Not a directory under the import root: " + relativePath);
+        }
+        acquire();
+        try {
+            Source source = new Source() {
+                @Override
+                public byte[] read(String fileName) throws IOException {
+                    Path file = directory.resolve(fileName).normalize();
+                    if (!file.startsWith(directory) || !Files.isRegularFile(file)) {
+                        throw new IllegalArgumentException("not in the directory");
+                    }
+                    try (InputStream in = Files.newInputStream(file)) {
+                        return readCapped(in);
+                    }
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+            return start(directoryRoot.relativize(directory).toString(), source);
+        } catch (IOException | RuntimeException e) {
+            busy.set(false);
+            throw e;
+        }
+    }
+
+    public Optional<ImportJob> find(String importId) {
+        return Optional.ofNullable(jobs.getIfPresent(importId));
+    }
+
+    private void acquire() {
+        if (!busy.compareAndSet(false, true)) {
+            throw new TooManyRequestsException("A resume import is already running", RETRY_AFTER);
+        }
+    }
+
+    private ImportJob start(String sourceName, Source source) throws IOException {
+        List<ManifestEntry> manifest;
+        try {
+            manifest = parseManifest(source.read(MANIFEST));
+        } catch (IOException | RuntimeException e) {
+            source.close();
+            if (e instanceof IllegalArgumentException) {
+                throw new IllegalArgumentException(MANIFEST + ": " + e.getMessage());
+            }
+            throw e;
+        }
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), sourceName, manifest.size());
+        jobs.put(job.getId(), job);
+        logger.info("Resume import {} started from {}: {} files", job.getId(), sourceName, manifest.size());
+        importExecutor.execute(() -> run(job, source, manifest));
+        return job;
+    }
+
+    private static List<ManifestEntry> parseManifest(byte[] content) throws IOException {
+        List<ManifestEntry> entries = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new ByteArrayInputStream(content), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                // file names may contain commas; the candidate id never does
+                int comma = line.lastIndexOf(',');
+                String fileName = comma > 0 ? line.substring(0, comma).strip() : "";
+                String candidateId = comma > 0 ? line.substring(comma + 1).strip() : "";
+                if (lineNumber == 1 && !candidateId.isEmpty() && !Character.isDigit(candidateId.charAt(0))) {
+                    continue; // header
+                }
+                try {
+                    entries.add(new ManifestEntry(fileName, Long.valueOf(candidateId)));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("manifest.csv line " + lineNumber + ": expected file,candidateId");
+                }
+                if (fileName.isEmpty()) {
+                    throw new IllegalArgumentException("manifest.csv line " + lineNumber + ": missing file name");
+                }
+            }
+        }
+        if (entries.isEmpty()) {
+            throw new IllegalArgumentException("manifest.csv lists no files");
+        }
+        return entries;
+    }
+
+    private void run(ImportJob job, Source source, List<ManifestEntry> manifest) {
+        Semaphore window = new Semaphore(parallelism);
+        ConcurrentLinkedQueue<Row> ready = new ConcurrentLinkedQueue<>();
+        AtomicInteger readyCount = new AtomicInteger();
+        // files in flight or parsed but not yet written, by content hash; only the import thread touches it
+        Map<String, CompletableFuture<Stored>> byHash = new HashMap<>();
+        Set<Long> importedIds = new HashSet<>();
+        try (source) {
+            Set<Long> known = existingCandidates(manifest);
+            for (ManifestEntry entry : manifest) {
+                if (!known.contains(entry.candidateId())) {
+                    failed(job, entry, new IllegalArgumentException("candidate " + entry.candidateId() + " not found"));
+                    continue;
+                }
+                window.acquire();
+                byte[] bytes;
+                try {
+                    bytes = source.read(entry.fileName());
+                } catch (IOException | RuntimeException e) {
+                    window.release();
+                    failed(job, entry, e);
+                    continue;
+                }
+                job.bytesRead.addAndGet(bytes.length);
+                SpooledContent content = SpooledContent.of(entry.fileName(), bytes);
+                boolean[] first = {false};
+                CompletableFuture<Stored> stored = byHash.computeIfAbsent(content.sha256(), hash -> {
+                    first[0] = true;
+                    return store(content);
+                });
+                boolean duplicate = !first[0];
+                stored.whenComplete((result, failure) -> {
+                    if (failure != null) {
+                        failed(job, entry, failure);
+                    } else {
+                        if (duplicate || result.reused()) {
+                            job.deduplicated.incrementAndGet();
+                            documents("deduplicated");
+                        }
+                        ready.add(new Row(entry, result, result.reused() ? content : null));
+                        readyCount.incrementAndGet();
+                    }
+                    window.release();
+                });
+                if (readyCount.get() >= batchSize) {
+                    write(job, ready, readyCount, byHash, importedIds);
+                }
+            }
+            // every file has finished once all permits are back
+            window.acquire(parallelism);
+            while (readyCount.get() > 0) {
+                write(job, ready, readyCount, byHash, importedIds);
+            }
+            if (!importedIds.isEmpty()) {
+                eventPublisher.publishEvent(new ResumesImportedEvent(List.copyOf(importedIds)));
+            }
+            job.status = Status.COMPLETED;
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            logger.error("Resume import {} failed: {}", job.getId(), e.getMessage(), e);
+            job.error = e.getMessage();
+            job.status = Status.FAILED;
+        } finally {
+            job.finishedAt = Instant.now();
+            jobs.put(job.getId(), job);
+            busy.set(false);
+            logger.info("Resume import {} {}: {} imported ({} deduplicated), {} failed of {} in {} s, {} docs/s",
+                    job.getId(), job.getStatus(), job.getImported(), job.getDeduplicated(), job.getFailed(),
+                    job.getTotal(), Duration.between(job.getStartedAt(), job.getFinishedAt()).toSeconds(),
+                    String.format("%.1f", job.getDocumentsPerSecond()));
+        }
+    }
+
+    private Set<Long> existingCandidates(List<ManifestEntry> manifest) {
+        List<Long> ids = manifest.stream().map(ManifestEntry::candidateId).distinct().toList();
+        Set<Long> existing = new HashSet<>();
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            existing.addAll(candidateRepository.findExistingIds(ids.subList(from, Math.min(ids.size(), from + batchSize))));
+        }
+        return existing;
+    }
+
+    // Reuses a stored file with the same content, or uploads and parses it concurrently
+    private CompletableFuture<Stored> store(SpooledContent content) {
+        String hash = content.sha256();
+        Optional<ResumeContentView> existing = resumeRepository.findFirstByContentHash(hash);
+        if (existing.isPresent()) {
+            String text = existing.get().getExtractedText();
+            return CompletableFuture.completedFuture(new Stored(existing.get().getFilePath(), text,
+                    matchingService.buildSkillProfile(text), hash, true));
+        }
+        CompletableFuture<String> uploaded = CompletableFuture.supplyAsync(() -> upload(content), uploadExecutor);
+        CompletableFuture<Stored> parsed = extract(content)
+                .thenApply(text -> new Stored(null, text, matchingService.buildSkillProfile(text), hash, false));
+        CompletableFuture<Stored> combined = uploaded
+                .thenCombine(parsed, (fileUrl, result) ->
+                        new Stored(fileUrl, result.text(), result.skillProfile(), hash, false))
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        combined.whenComplete((result, failure) -> {
+            if (failure != null) {
+                uploaded.thenAccept(this::discard);
+            }
+        });
+        return combined;
+    }
+
+    // The extraction queue is shared with interactive uploads; wait for room instead of failing
+    private CompletableFuture<String> extract(SpooledContent content) {
+        return resumeTextExtractor.extract(content).exceptionallyCompose(failure ->
+                failure instanceof RejectedExecutionException
+                        ? CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS))
+                                .thenCompose(ignored -> extract(content))
+                        : CompletableFuture.failedFuture(failure));
+    }
+
+    private void write(ImportJob job, ConcurrentLinkedQueue<Row> ready, AtomicInteger readyCount,
+                       Map<String, CompletableFuture<Stored>> byHash, Set<Long> importedIds) {
+        // the last file listed for a candidate wins
+        Map<Long, Row> byCandidate = new LinkedHashMap<>();
+        Row row;
+        while (byCandidate.size() < batchSize && (row = ready.poll()) != null) {
+            readyCount.decrementAndGet();
+            byCandidate.put(row.entry().candidateId(), row);
+        }
+        if (byCandidate.isEmpty()) return;
+        Timer.Sample sample = Timer.start(meterRegistry);
+        // reused file -> the copy uploaded because the resumes it was reused from were deleted
+        Map<String, String> reuploaded = new HashMap<>();
+        try {
+            List<Row> gone;
+            while (!(gone = writeBatch(byCandidate, reuploaded)).isEmpty()) {
+                // uploaded outside the transaction, then the batch is written again with the copies
+                for (Row r : gone) {
+                    reuploaded.put(r.stored().fileUrl(), upload(r.content()));
+                }
+            }
+            importedIds.addAll(byCandidate.keySet());
+            job.imported.addAndGet(byCandidate.size());
+            meterRegistry.counter("resume.import.documents", "outcome", "imported").increment(byCandidate.size());
+        } catch (RuntimeException e) {
+            logger.error("Resume import {}: a batch of {} failed: {}", job.getId(), byCandidate.size(), e.getMessage(), e);
+            reuploaded.values().forEach(this::discard);
+            // files uploaded for this batch, unless a duplicate still waiting to be written holds them
+            Set<String> pending = new HashSet<>();
+            ready.forEach(r -> pending.add(r.stored().fileUrl()));
+            byCandidate.values().stream()
+                    .filter(r -> !r.stored().reused())
+                    .map(r -> r.stored().fileUrl())
+                    .distinct()
+                    .filter(fileUrl -> !pending.contains(fileUrl))
+                    .forEach(this::discard);
+            byCandidate.values().forEach(r -> failed(job, r.entry(), e));
+        } finally {
+            sample.stop(meterRegistry.timer("resume.import.batch"));
+            // written files are found by content hash in the database from now on
+            byCandidate.values().forEach(r -> byHash.remove(r.stored().contentHash()));
+        }
+        logger.info("Resume import {}: {} of {} imported, {} failed, {} docs/s", job.getId(), job.getImported(),
+                job.getTotal(), job.getFailed(), String.format("%.1f", job.getDocumentsPerSecond()));
+    }
+
+    // Writes the batch in one transaction, unless a reused file not yet copied is gone; those
+    // rows are returned, once per file, and nothing is written
+    private List<Row> writeBatch(Map<Long, Row> byCandidate, Map<String, String> reuploaded) {
+        return transactionTemplate.execute(status -> {
+            Map<String, Row> gone = new LinkedHashMap<>();
+            for (Row r : byCandidate.values()) {
+                String fileUrl = r.stored().fileUrl();
+                if (r.stored().reused() && !reuploaded.containsKey(fileUrl) && !gone.containsKey(fileUrl)
+                        && resumeRepository.lockIdsByFilePath(fileUrl).isEmpty()) {
+                    gone.put(fileUrl, r);
+                }
+            }
+            if (!gone.isEmpty()) {
+                status.setRollbackOnly();
+                return List.copyOf(gone.values());
+            }
+            resumeRepository.deleteByCandidateIdIn(byCandidate.keySet());
+            List<Resume> resumes = new ArrayList<>(byCandidate.size());
+            for (Row r : byCandidate.values()) {
+                Resume resume = new Resume();
+                resume.setOriginalFileName(r.entry().fileName());
+                resume.setExtractedText(r.stored().text());
+                resume.setSkillProfile(r.stored().skillProfile());
+                resume.setFilePath(reuploaded.getOrDefault(r.stored().fileUrl(), r.stored().fileUrl()));
+                resume.setContentHash(r.stored().contentHash());
+                resume.setCandidate(candidateRepository.getReferenceById(r.entry().candidateId()));
+                resumes.add(resume);
+            }
+            resumeRepository.saveAll(resumes);
+            return List.<Row>of();
+        });
+    }
+
+    private void failed(ImportJob job, ManifestEntry entry, Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause() : failure;
+        job.fail(entry.fileName(), cause);
+        documents("failed");
+    }
+
+    private void documents(String outcome) {
+        meterRegistry.counter("resume.import.documents", "outcome", outcome).increment();
+    }
+
+    private String upload(SpooledContent content) {
+        try {
+            return resumeFileStorage.upload(content);
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private void discard(String fileUrl) {
+        try {
+            resumeFileStorage.destroy(fileUrl);
+        } catch (Exception e) {
+            logger.warn("Could not delete orphaned resume file {}: {}", fileUrl, e.getMessage());
+        }
+    }
+
+    private void copyCapped(InputStream in, Path file) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            byte[] buffer = new byte[64 * 1024];
+            long copied = 0;
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                copied += n;
+                if (copied > maxArchiveSize) {
+                    throw new IllegalArgumentException("Archive exceeds " + DataSize.ofBytes(maxArchiveSize).toMegabytes() + "MB");
+                }
+                out.write(buffer, 0, n);
+            }
+        }
+    }
+
+    private static ZipFile openZip(Path file) {
+        try {
+            return new ZipFile(file.toFile());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Not a zip archive");
+        }
+    }
+
+    private byte[] readCapped(InputStream in) throws IOException {
+        byte[] bytes = in.readNBytes((int) Math.min(Integer.MAX_VALUE - 8, maxFileSize + 1));
+        if (bytes.length > maxFileSize) {
+            throw new IllegalArgumentException("larger than " + DataSize.ofBytes(maxFileSize).toMegabytes() + "MB");
+        }
+        return bytes;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        importExecutor.shutdownNow();
+        uploadExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,463 @@
+package com.walid.jobmatcher.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.walid.jobmatcher.entity.Candidate;
+import com.walid.jobmatcher.entity.Resume;
+import com.walid.jobmatcher.event.ResumeChangedEvent;
+import com.walid.jobmatcher.exception.TooManyRequestsException;
+import com.walid.jobmatcher.repository.CandidateRepository;
+import com.walid.jobmatcher.repository.ResumeContentView;
+import com.walid.jobmatcher.repository.ResumeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resume uploads processed off the request thread. The request only spools the file once
+ * (see {@link SpooledContent}) and gets an ingestion id. A file whose SHA-256 matches a
+ * stored resume reuses that resume's file URL and text; should that resume and its file be
+ * deleted before the commit, the file is uploaded then, outside the commit lock, and the
+ * commit retried. Otherwise the storage upload, on an
+ * I/O pool, and text extraction ({@link ResumeTextExtractor}) followed by skill profiling
+ * on a CPU pool read that same buffer concurrently under one combined timeout, so an
+ * ingestion takes about max(upload, parse) rather than their sum. The database and index
+ * update follows. At most
+ * {@code max-pending} ingestions are admitted at once, which also bounds both pools'
+ * queues and the memory held by pending files; beyond that submissions are refused.
+ * <p>
+ * The candidate's previous resume stays visible until the new one is committed. When a
+ * candidate uploads again before an earlier ingestion commits, only the newest is
+ * committed and the earlier one ends as {@link Status#SUPERSEDED}.
+ */
+@Service
+public class ResumeIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResumeIngestionService.class);
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(5);
+
+    public enum Status {
+        QUEUED, PROCESSING, INDEXING, COMPLETED, FAILED, SUPERSEDED;
+
+        public boolean isFinal() {
+            return this == COMPLETED || this == FAILED || this == SUPERSEDED;
+        }
+    }
+
+    // Progress of one upload; written by the pipeline, read by status requests
+    public static final class Ingestion {
+        private final String id;
+        private final Long candidateId;
+        private final String fileName;
+        private final Instant submittedAt = Instant.now();
+        private volatile Status status = Status.QUEUED;
+        private volatile String error;
+        private volatile boolean deduplicated;
+        private volatile Instant updatedAt = submittedAt;
+
+        private Ingestion(String id, Long candidateId, String fileName) {
+            this.id = id;
+            this.candidateId = candidateId;
+            this.fileName = fileName;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public Long getCandidateId() {
+            return candidateId;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public boolean isDeduplicated() {
+            return deduplicated;
+        }
+
+        public Instant getSubmittedAt() {
+            return submittedAt;
+        }
+
+        public Instant getUpdatedAt() {
+            return updatedAt;
+        }
+
+        private void advance(Status status) {
+            this.status = status;
+            this.updatedAt = Instant.now();
+        }
+    }
+
+    private record Parsed(String fileUrl, String text, Set<String> skillProfile, String contentHash, boolean reused) {
+        // a file uploaded for this ingestion, which no other resume can delete
+        Parsed withFileUrl(String fileUrl) {
+            return new Parsed(fileUrl, text, skillProfile, contentHash, false);
+        }
+    }
+
+    private final ResumeFileStorage resumeFileStorage;
+    private final ResumeTextExtractor resumeTextExtractor;
+    private final CandidateRepository candidateRepository;
+    private final ResumeRepository resumeRepository;
+    private final MatchingService matchingService;
+    private final CandidateSkillIndex candidateSkillIndex;
+    private final CandidateVectorIndex candidateVectorIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final Semaphore admissions;
+    private final int maxPending;
+    private final long heapSpoolLimit;
+    private final Duration timeout;
+    private final ExecutorService uploadExecutor;
+    private final ExecutorService processingExecutor;
+    private final Cache<String, Ingestion> ingestions;
+    private final Map<Long, String> latestByCandidate = new ConcurrentHashMap<>();
+    private final Object commitLock = new Object();
+    private final Counter rejected;
+    private final Counter dedupHits;
+    private final Counter dedupBytes;
+    private final Counter dedupParseTime;
+
+    public ResumeIngestionService(@Value("${resume.ingestion.upload-threads:4}") int uploadThreads,
+                                  @Value("${resume.ingestion.processing-threads:0}") int processingThreads,
+                                  @Value("${resume.ingestion.max-pending:32}") int maxPending,
+                                  @Value("${resume.ingestion.retention:1h}") Duration retention,
+                                  @Value("${resume.ingestion.heap-spool-limit:1MB}") DataSize heapSpoolLimit,
+                                  @Value("${resume.ingestion.timeout:60s}") Duration timeout,
+                                  ResumeFileStorage resumeFileStorage,
+                                  ResumeTextExtractor resumeTextExtractor,
+                                  CandidateRepository candidateRepository,
+                                  ResumeRepository resumeRepository,
+                                  MatchingService matchingService,
+                                  CandidateSkillIndex candidateSkillIndex,
+                                  CandidateVectorIndex candidateVectorIndex,
+                                  ApplicationEventPublisher eventPublisher,
+                                  TransactionTemplate transactionTemplate,
+                                  MeterRegistry meterRegistry) {
+        if (uploadThreads < 1 || maxPending < 1) {
+            throw new IllegalArgumentException("resume.ingestion.upload-threads and max-pending must be positive");
+        }
+        this.resumeFileStorage = resumeFileStorage;
+        this.resumeTextExtractor = resumeTextExtractor;
+        this.candidateRepository = candidateRepository;
+        this.resumeRepository = resumeRepository;
+        this.matchingService = matchingService;
+        this.candidateSkillIndex = candidateSkillIndex;
+        this.candidateVectorIndex = candidateVectorIndex;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.maxPending = maxPending;
+        this.heapSpoolLimit = heapSpoolLimit.toBytes();
+        this.timeout = timeout;
+        this.admissions = new Semaphore(maxPending);
+        this.uploadExecutor = pool("resume-upload", uploadThreads);
+        this.processingExecutor = pool("resume-processing",
+                processingThreads > 0 ? processingThreads : Runtime.getRuntime().availableProcessors());
+        // finished ingestions stay queryable for a while, then expire
+        this.ingestions = Caffeine.newBuilder().expireAfterWrite(retention).build();
+
+        Gauge.builder("resume.ingestion.pending", this, s -> s.maxPending - s.admissions.availablePermits())
+                .description("Admitted resume uploads not yet finished")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("resume.ingestion.rejected")
+                .description("Resume uploads refused because max-pending were in flight")
+                .register(meterRegistry);
+        this.dedupHits = Counter.builder("resume.dedup.hits")
+                .description("Resume uploads that matched a stored file by content hash")
+                .register(meterRegistry);
+        this.dedupBytes = Counter.builder("resume.dedup.bytes")
+                .baseUnit("bytes")
+                .description("Bytes not uploaded to storage because the file was already stored")
+                .register(meterRegistry);
+        this.dedupParseTime = Counter.builder("resume.dedup.parse.time")
+                .baseUnit("seconds")
+                .description("Text extraction time avoided, estimated at the mean successful resume.parse")
+                .register(meterRegistry);
+    }
+
+    private static ExecutorService pool(String name, int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        // unbounded queues, bounded in practice by the admission semaphore
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Admits an upload, spools it and starts its pipeline. Must be called on the request
+     * thread: the multipart file is deleted when the request ends.
+     *
+     * @throws TooManyRequestsException when max-pending ingestions are already in flight
+     */
+    public Ingestion submit(Long candidateId, MultipartFile file) throws IOException {
+        if (!admissions.tryAcquire()) {
+            rejected.increment();
+            throw new TooManyRequestsException("Too many resume uploads in progress, retry shortly", RETRY_AFTER);
+        }
+        SpooledContent content;
+        try {
+            content = SpooledContent.spool(file, heapSpoolLimit);
+        } catch (IOException | RuntimeException e) {
+            admissions.release();
+            throw e;
+        }
+        Ingestion ingestion = new Ingestion(UUID.randomUUID().toString(), candidateId, content.getFileName());
+        ingestions.put(ingestion.getId(), ingestion);
+        latestByCandidate.put(candidateId, ingestion.getId());
+        Timer.Sample sample = Timer.start(meterRegistry);
+        // completed once nothing reads the buffer any more, even after a timeout
+        CompletableFuture<Void> settled = new CompletableFuture<>();
+        CompletableFuture<Void> released = settled.handle((ignored, failure) -> {
+            closeQuietly(content);
+            admissions.release();
+            return null;
+        });
+        try {
+            ingestion.advance(Status.PROCESSING);
+            CompletableFuture
+                    .supplyAsync(() -> findStored(content), processingExecutor)
+                    .thenCompose(stored -> stored
+                            .map(view -> CompletableFuture.completedFuture(view)
+                                    .thenApply(found -> reuse(ingestion, content, found))
+                                    .thenAcceptAsync(result -> commit(ingestion, result, content), processingExecutor)
+                                    // kept spooled in case the reused file is gone by the commit
+                                    .whenComplete((ignored, failure) -> settled.complete(null)))
+                            .orElseGet(() -> uploadAndParse(ingestion, content, settled)
+                                    .thenAcceptAsync(result -> commit(ingestion, result, content), processingExecutor)))
+                    .whenComplete((ignored, failure) -> {
+                        if (failure == null) {
+                            // the permit is back before the final status is visible to pollers
+                            released.thenRun(() -> finish(ingestion, null, sample));
+                        } else {
+                            finish(ingestion, failure, sample);
+                        }
+                    });
+        } catch (RuntimeException e) {
+            // an executor that refuses work is shutting down
+            latestByCandidate.remove(candidateId, ingestion.getId());
+            settled.complete(null);
+            throw e;
+        }
+        return ingestion;
+    }
+
+    public Optional<Ingestion> find(String ingestionId) {
+        return Optional.ofNullable(ingestions.getIfPresent(ingestionId));
+    }
+
+    private void finish(Ingestion ingestion, Throwable failure, Timer.Sample sample) {
+        latestByCandidate.remove(ingestion.getCandidateId(), ingestion.getId());
+        if (failure != null) {
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause() : failure;
+            String message = cause instanceof TimeoutException && cause.getMessage() == null
+                    ? "Upload and text extraction did not finish within " + timeout.toSeconds() + "s"
+                    : cause.getMessage();
+            logger.error("Resume ingestion {} failed for candidateId: {}: {}",
+                    ingestion.getId(), ingestion.getCandidateId(), message, cause);
+            ingestion.error = message;
+            ingestion.advance(Status.FAILED);
+        } else if (ingestion.getStatus() != Status.SUPERSEDED) {
+            ingestion.advance(Status.COMPLETED);
+        }
+        sample.stop(meterRegistry.timer("resume.ingestion", "status", ingestion.getStatus().name()));
+    }
+
+    // A failed lookup only costs the deduplication, not the upload
+    private Optional<ResumeContentView> findStored(SpooledContent content) {
+        try {
+            return resumeRepository.findFirstByContentHash(content.sha256());
+        } catch (RuntimeException e) {
+            logger.warn("Resume content hash lookup failed, storing the upload: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Parsed reuse(Ingestion ingestion, SpooledContent content, ResumeContentView stored) {
+        ingestion.deduplicated = true;
+        dedupHits.increment();
+        dedupBytes.increment(content.size());
+        Timer parse = meterRegistry.find("resume.parse").tag("outcome", "success").timer();
+        if (parse != null) {
+            dedupParseTime.increment(parse.mean(TimeUnit.SECONDS));
+        }
+        logger.info("Resume for candidateId: {} matches stored file {}, skipping upload and extraction",
+                ingestion.getCandidateId(), stored.getFilePath());
+        String text = stored.getExtractedText();
+        return new Parsed(stored.getFilePath(), text, matchingService.buildSkillProfile(text), content.sha256(), true);
+    }
+
+    private CompletableFuture<Parsed> uploadAndParse(Ingestion ingestion, SpooledContent content,
+                                                     CompletableFuture<Void> settled) {
+        try {
+            CompletableFuture<String> uploaded = CompletableFuture.supplyAsync(() -> upload(ingestion, content), uploadExecutor);
+            CompletableFuture<Parsed> parsed = resumeTextExtractor.extract(content).thenApplyAsync(text ->
+                    new Parsed(null, text, matchingService.buildSkillProfile(text), content.sha256(), false), processingExecutor);
+            CompletableFuture.allOf(uploaded, parsed).whenComplete((ignored, failure) -> settled.complete(null));
+            CompletableFuture<Parsed> combined = uploaded.thenCombine(parsed, (fileUrl, result) -> result.withFileUrl(fileUrl))
+                    .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            // an upload whose extraction failed or timed out is never referenced
+            combined.whenComplete((result, failure) -> {
+                if (failure != null) {
+                    uploaded.thenAccept(this::discard);
+                }
+            });
+            return combined;
+        } catch (RuntimeException e) {
+            settled.complete(null);
+            throw e;
+        }
+    }
+
+    private String upload(Ingestion ingestion, SpooledContent content) {
+        try {
+            String fileUrl = resumeFileStorage.upload(content);
+            logger.info("Resume uploaded to Cloudinary for candidateId: {}. Cloudinary URL: {}",
+                    ingestion.getCandidateId(), fileUrl);
+            return fileUrl;
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private void discard(String fileUrl) {
+        try {
+            resumeFileStorage.destroy(fileUrl);
+        } catch (Exception e) {
+            logger.warn("Could not delete orphaned resume file {}: {}", fileUrl, e.getMessage());
+        }
+    }
+
+    private static void closeQuietly(SpooledContent content) {
+        try {
+            content.close();
+        } catch (IOException e) {
+            logger.warn("Could not delete resume spool file: {}", e.getMessage());
+        }
+    }
+
+    private enum Commit {
+        COMMITTED, SUPERSEDED, FILE_GONE
+    }
+
+    // Commits the resume; a reused file that is gone by then is uploaded outside the commit lock
+    // and transaction, and the commit retried with the copy
+    private void commit(Ingestion ingestion, Parsed parsed, SpooledContent content) {
+        if (swap(ingestion, parsed) != Commit.FILE_GONE) return;
+        logger.info("Stored file {} is gone, uploading the resume for candidateId: {}",
+                parsed.fileUrl(), ingestion.getCandidateId());
+        String fileUrl = upload(ingestion, content);
+        try {
+            if (swap(ingestion, parsed.withFileUrl(fileUrl)) == Commit.SUPERSEDED) {
+                discard(fileUrl);
+            }
+        } catch (RuntimeException e) {
+            discard(fileUrl);
+            throw e;
+        }
+    }
+
+    // Swaps the candidate's resume, then updates the indexes; one swap at a time
+    private Commit swap(Ingestion ingestion, Parsed parsed) {
+        Long candidateId = ingestion.getCandidateId();
+        synchronized (commitLock) {
+            if (!ingestion.getId().equals(latestByCandidate.get(candidateId))) {
+                logger.info("Resume ingestion {} superseded by a newer upload for candidateId: {}",
+                        ingestion.getId(), candidateId);
+                ingestion.advance(Status.SUPERSEDED);
+                return Commit.SUPERSEDED;
+            }
+            ingestion.advance(Status.INDEXING);
+            boolean[] fileGone = new boolean[1];
+            Resume oldResume = transactionTemplate.execute(status -> {
+                // the resume the file was reused from may have been deleted since, file and all
+                if (parsed.reused() && resumeRepository.lockIdsByFilePath(parsed.fileUrl()).isEmpty()) {
+                    fileGone[0] = true;
+                    status.setRollbackOnly();
+                    return null;
+                }
+                Candidate candidate = candidateRepository.findById(candidateId)
+                        .orElseThrow(() -> new IllegalArgumentException("Candidate not found"));
+                candidate.setResume(null); // Break the association
+                candidateRepository.save(candidate);
+                Resume previous = resumeRepository.findByCandidateId(candidateId).orElse(null);
+                if (previous != null) {
+                    resumeRepository.delete(previous);
+                    resumeRepository.flush();
+                }
+                Resume resume = new Resume();
+                resume.setOriginalFileName(ingestion.getFileName());
+                resume.setExtractedText(parsed.text());
+                resume.setSkillProfile(parsed.skillProfile());
+                resume.setCandidate(candidate);
+                resume.setFilePath(parsed.fileUrl());
+                resume.setContentHash(parsed.contentHash());
+                resumeRepository.save(resume);
+                return previous;
+            });
+            if (fileGone[0]) {
+                return Commit.FILE_GONE;
+            }
+            if (oldResume != null) {
+                candidateSkillIndex.remove(candidateId, oldResume.getSkillProfile());
+                candidateVectorIndex.remove(candidateId);
+                eventPublisher.publishEvent(new ResumeChangedEvent(candidateId, oldResume.getSkillProfile(), null));
+            }
+            candidateSkillIndex.add(candidateId, parsed.skillProfile());
+            candidateVectorIndex.add(candidateId, parsed.text());
+            eventPublisher.publishEvent(new ResumeChangedEvent(candidateId, null, parsed.skillProfile()));
+            logger.info("Resume entity saved for candidateId: {}", candidateId);
+            return Commit.COMMITTED;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        uploadExecutor.shutdownNow();
+        processingExecutor.shutdownNow();
+    }
+}
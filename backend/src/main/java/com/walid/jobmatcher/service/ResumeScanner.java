@@ -0,0 +1,78 @@
+package com.walid.jobmatcher.service;
+
+import com.walid.jobmatcher.repository.ResumeRepository;
+import com.walid.jobmatcher.repository.ResumeSkillProfileView;
+import com.walid.jobmatcher.repository.ResumeTextView;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Full scans of the resume table that run in constant heap: rows are streamed through
+ * a server-side cursor one fetch at a time, inside a read-only transaction, and the
+ * persistence context is cleared after every fetch so nothing accumulates in it.
+ */
+@Service
+public class ResumeScanner {
+
+    private final ResumeRepository resumeRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final MeterRegistry meterRegistry;
+
+    public ResumeScanner(ResumeRepository resumeRepository, EntityManager entityManager,
+                         PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.resumeRepository = resumeRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        // read-only also lets the PostgreSQL driver honour the fetch size, which needs autocommit off
+        this.readOnlyTransaction.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+    }
+
+    public long forEachSkillProfile(Consumer<ResumeSkillProfileView> action) {
+        return scan("skill-profile", resumeRepository::streamAllSkillProfiles, action);
+    }
+
+    public long forEachText(Consumer<ResumeTextView> action) {
+        return scan("text", resumeRepository::streamAllExtractedTexts, action);
+    }
+
+    // resumes.scan and resumes.scanned{column=skill-profile|text}
+    private <T> long scan(String column, Supplier<Stream<T>> query, Consumer<T> action) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Long scanned = readOnlyTransaction.execute(status -> {
+            long count = 0;
+            try (Stream<T> rows = query.get()) {
+                Iterator<T> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    action.accept(iterator.next());
+                    if (++count % ResumeRepository.SCAN_FETCH_SIZE == 0) {
+                        entityManager.clear();
+                    }
+                }
+            }
+            return count;
+        });
+        long rows = scanned == null ? 0 : scanned;
+        sample.stop(Timer.builder("resumes.scan")
+                .description("Full scans of the resume table")
+                .tag("column", column)
+                .register(meterRegistry));
+        Counter.builder("resumes.scanned")
+                .description("Resume rows read by full scans")
+                .tag("column", column)
+                .register(meterRegistry)
+                .increment(rows);
+        return rows;
+    }
+}
@@ -0,0 +1,86 @@
+package com.walid.jobmatcher.service;
+
+import com.walid.jobmatcher.entity.CompressedTextConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Moves resume text stored before compression, in the plain {@code extracted_text}
+ * column, into {@code extracted_text_lz4}, a batch per transaction. Migrated rows have
+ * the old column cleared, so an interrupted run resumes where it stopped. Runs before
+ * anything else reads resume text at startup; once it reports nothing left to do, the old
+ * column can be dropped.
+ */
+@Service
+public class ResumeTextCompressionMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResumeTextCompressionMigration.class);
+    private static final int BATCH_SIZE = 200;
+
+    private record Row(long id, String text) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean migrateOnStartup;
+
+    public ResumeTextCompressionMigration(JdbcTemplate jdbcTemplate,
+                                          TransactionTemplate transactionTemplate,
+                                          @Value("${resume.text.migrate-on-startup:true}") boolean migrateOnStartup) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.migrateOnStartup = migrateOnStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(-10)
+    public void onApplicationReady() {
+        if (migrateOnStartup) {
+            migrate();
+        }
+    }
+
+    public int migrate() {
+        if (!hasLegacyColumn()) {
+            return 0;
+        }
+        int total = 0;
+        int migrated;
+        do {
+            migrated = transactionTemplate.execute(status -> {
+                List<Row> batch = jdbcTemplate.query(
+                        "select id, extracted_text from resumes where extracted_text is not null order by id limit ?",
+                        (rs, rowNum) -> new Row(rs.getLong(1), rs.getString(2)), BATCH_SIZE);
+                jdbcTemplate.batchUpdate("update resumes set extracted_text_lz4 = ?, extracted_text = null where id = ?",
+                        batch.stream()
+                                .map(row -> new Object[]{CompressedTextConverter.compress(row.text()), row.id()})
+                                .toList());
+                return batch.size();
+            });
+            total += migrated;
+        } while (migrated == BATCH_SIZE);
+        if (total > 0) {
+            logger.info("Compressed the extracted text of {} resumes", total);
+        } else {
+            logger.info("Column resumes.extracted_text holds no text any more and can be dropped");
+        }
+        return total;
+    }
+
+    private boolean hasLegacyColumn() {
+        Integer columns = jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.columns where table_schema = current_schema() "
+                        + "and lower(table_name) = 'resumes' and lower(column_name) = 'extracted_text'",
+                Integer.class);
+        return columns != null && columns > 0;
+    }
+}
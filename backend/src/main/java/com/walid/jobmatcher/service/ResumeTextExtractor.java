@@ -0,0 +1,234 @@
+package com.walid.jobmatcher.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.apache.tika.exception.TikaException;
+import org.apache.tika.exception.WriteLimitReachedException;
+import org.apache.tika.extractor.EmbeddedDocumentExtractor;
+import org.apache.tika.extractor.ParsingEmbeddedDocumentExtractor;
+import org.apache.tika.fork.ForkParser;
+import org.apache.tika.io.TikaInputStream;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.metadata.TikaCoreProperties;
+import org.apache.tika.parser.AutoDetectParser;
+import org.apache.tika.parser.ParseContext;
+import org.apache.tika.parser.Parser;
+import org.apache.tika.parser.ParserDecorator;
+import org.apache.tika.sax.BodyContentHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Resume text extraction on a fixed pool of workers sharing one warmed Tika parser. Each
+ * document gets a timeout, counted from when a worker picks it up so time spent queued
+ * behind other documents is not held against it; its text is cut at {@code max-chars} and at most
+ * {@code max-embedded} attachments are parsed; documents beyond the bounded queue are
+ * rejected. In process, a timed-out worker is interrupted, which not every parser honours.
+ * With {@code forked} set, parsing runs in a pool of child JVMs with their own heap, and a
+ * child that hangs or runs out of memory is killed without affecting the application.
+ * <p>
+ * Every document's parse is timed as {@code resume.parse{outcome=success|truncated|timeout|rejected|failed}},
+ * and its wait for a worker as {@code resume.extraction.queue.wait}.
+ */
+@Service
+public class ResumeTextExtractor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResumeTextExtractor.class);
+
+    private record Extracted(String text, boolean truncated) {
+    }
+
+    private final Duration timeout;
+    private final int maxChars;
+    private final Parser parser;
+    private final ForkParser forkParser;
+    private final ThreadPoolExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final Timer queueWait;
+
+    public ResumeTextExtractor(@Value("${resume.extraction.threads:0}") int threads,
+                               @Value("${resume.extraction.queue-capacity:64}") int queueCapacity,
+                               @Value("${resume.extraction.timeout:30s}") Duration timeout,
+                               @Value("${resume.extraction.max-chars:100000}") int maxChars,
+                               @Value("${resume.extraction.max-embedded:10}") int maxEmbedded,
+                               @Value("${resume.extraction.forked:false}") boolean forked,
+                               @Value("${resume.extraction.fork-heap:256m}") String forkHeap,
+                               MeterRegistry meterRegistry) {
+        if (queueCapacity < 1 || maxChars < 1 || maxEmbedded < 0) {
+            throw new IllegalArgumentException(
+                    "resume.extraction.queue-capacity and max-chars must be positive, max-embedded not negative");
+        }
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.timeout = timeout;
+        this.maxChars = maxChars;
+        this.meterRegistry = meterRegistry;
+        Parser limited = new EmbeddedLimitParser(new AutoDetectParser(), maxEmbedded);
+        if (forked) {
+            // one child per worker, reused across documents; the parser and its classes are shipped to it
+            forkParser = new ForkParser(ResumeTextExtractor.class.getClassLoader(), limited);
+            forkParser.setPoolSize(poolSize);
+            forkParser.setServerParseTimeoutMillis(timeout.toMillis());
+            forkParser.setJavaCommand(List.of(ProcessHandle.current().info().command().orElse("java"),
+                    "-Xmx" + forkHeap, "-Djava.awt.headless=true"));
+            parser = forkParser;
+        } else {
+            forkParser = null;
+            parser = limited;
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "resume-extraction-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("resume.extraction.queued", executor, e -> e.getQueue().size())
+                .description("Resumes waiting for an extraction worker")
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("resume.extraction.queue.wait")
+                .description("Time a resume waited for an extraction worker")
+                .register(meterRegistry);
+        // loads the detectors and parser registry (or starts a child) before the first upload needs it
+        executor.execute(this::warmUp);
+    }
+
+    /**
+     * Extracts the text of an uploaded file. Fails with a {@link RejectedExecutionException}
+     * when the queue is full and a {@link TimeoutException} when the timeout passes.
+     */
+    public CompletableFuture<String> extract(SpooledContent content) {
+        long submitted = System.nanoTime();
+        CompletableFuture<Extracted> result = new CompletableFuture<>();
+        // set by the worker before the result can complete
+        AtomicReference<Timer.Sample> parsing = new AtomicReference<>();
+        Future<?> task;
+        try {
+            task = executor.submit(() -> {
+                queueWait.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                parsing.set(Timer.start(meterRegistry));
+                result.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+                try {
+                    result.complete(parse(content));
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            timer("rejected").record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+            return CompletableFuture.failedFuture(
+                    new RejectedExecutionException("Text extraction is at capacity, retry shortly"));
+        }
+        return result.handle((extracted, failure) -> {
+            Timer.Sample sample = parsing.get();
+            if (failure == null) {
+                sample.stop(timer(extracted.truncated() ? "truncated" : "success"));
+                return extracted.text();
+            }
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause() : failure;
+            if (cause instanceof TimeoutException) {
+                task.cancel(true);
+                sample.stop(timer("timeout"));
+                logger.warn("Text extraction of {} timed out after {}", content.getFileName(), timeout);
+                throw new CompletionException(new TimeoutException(
+                        "Text extraction did not finish within " + timeout.toSeconds() + "s"));
+            }
+            sample.stop(timer("failed"));
+            throw new CompletionException(cause);
+        });
+    }
+
+    private Extracted parse(SpooledContent content) throws IOException, SAXException, TikaException {
+        // a mapped spool is handed over as its file, which parsers that need random access use in place
+        try (TikaInputStream stream = content.isMapped()
+                ? TikaInputStream.get(content.file().toPath())
+                : TikaInputStream.get(content.openStream())) {
+            return parse(stream, content.getFileName());
+        }
+    }
+
+    private Extracted parse(InputStream stream, String fileName) throws IOException, SAXException, TikaException {
+        BodyContentHandler handler = new BodyContentHandler(maxChars);
+        Metadata metadata = new Metadata();
+        metadata.set(TikaCoreProperties.RESOURCE_NAME_KEY, fileName);
+        try {
+            parser.parse(stream, handler, metadata, new ParseContext());
+            // a forked parse ends quietly at the limit instead of throwing
+            String text = handler.toString();
+            return new Extracted(text, text.length() >= maxChars);
+        } catch (SAXException | TikaException e) {
+            if (WriteLimitReachedException.isWriteLimitReached(e)) {
+                return new Extracted(handler.toString(), true);
+            }
+            throw e;
+        }
+    }
+
+    private void warmUp() {
+        try {
+            parse(new ByteArrayInputStream("warm-up".getBytes(StandardCharsets.UTF_8)), "warm-up.txt");
+        } catch (Exception e) {
+            logger.warn("Text extraction warm-up failed: {}", e.getMessage());
+        }
+    }
+
+    private Timer timer(String outcome) {
+        return meterRegistry.timer("resume.parse", "outcome", outcome);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        if (forkParser != null) {
+            forkParser.close();
+        }
+    }
+
+    // Parses the first maxEmbedded attachments and skips the rest, however deeply nested
+    static final class EmbeddedLimitParser extends ParserDecorator {
+        private final int maxEmbedded;
+
+        EmbeddedLimitParser(Parser parser, int maxEmbedded) {
+            super(parser);
+            this.maxEmbedded = maxEmbedded;
+        }
+
+        @Override
+        public void parse(InputStream stream, ContentHandler handler, Metadata metadata, ParseContext context)
+                throws IOException, SAXException, TikaException {
+            context.set(Parser.class, getWrappedParser());
+            context.set(EmbeddedDocumentExtractor.class, new ParsingEmbeddedDocumentExtractor(context) {
+                private int parsed;
+
+                @Override
+                public boolean shouldParseEmbedded(Metadata embedded) {
+                    return parsed++ < maxEmbedded && super.shouldParseEmbedded(embedded);
+                }
+            });
+            super.parse(stream, handler, metadata, context);
+        }
+    }
+}
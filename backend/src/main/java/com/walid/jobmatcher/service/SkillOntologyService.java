@@ -0,0 +1,69 @@
+package com.walid.jobmatcher.service;
+
+import com.walid.jobmatcher.event.SkillOntologyReloadedEvent;
+import com.walid.jobmatcher.matching.SkillOntology;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the compiled skill ontology. A reload compiles the file into a new dictionary
+ * and swaps the reference, so matches in progress finish on the one they started with;
+ * a file that fails to parse leaves the current dictionary in place.
+ */
+@Service
+public class SkillOntologyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SkillOntologyService.class);
+
+    private final Resource source;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AtomicReference<SkillOntology> current = new AtomicReference<>(SkillOntology.EMPTY);
+
+    public SkillOntologyService(@Value("${matching.ontology.location:classpath:skill-ontology.txt}") String location,
+                                ResourceLoader resourceLoader,
+                                ApplicationEventPublisher eventPublisher) {
+        this.source = resourceLoader.getResource(location);
+        this.eventPublisher = eventPublisher;
+        if (source.exists()) {
+            current.set(load());
+        } else {
+            logger.warn("Skill ontology {} not found, matching without synonyms", location);
+        }
+    }
+
+    public SkillOntology current() {
+        return current.get();
+    }
+
+    // Serialized so concurrent reloads publish their events in the order the dictionaries were set
+    public synchronized SkillOntology reload() {
+        SkillOntology ontology = load();
+        current.set(ontology);
+        eventPublisher.publishEvent(new SkillOntologyReloadedEvent(ontology.canonicalSkills(), ontology.surfaceForms()));
+        return ontology;
+    }
+
+    private SkillOntology load() {
+        long start = System.currentTimeMillis();
+        try (Reader reader = new InputStreamReader(source.getInputStream(), StandardCharsets.UTF_8)) {
+            SkillOntology ontology = SkillOntology.parse(reader);
+            logger.info("Skill ontology loaded from {}: {} skills, {} forms in {} ms", source.getDescription(),
+                    ontology.canonicalSkills(), ontology.surfaceForms(), System.currentTimeMillis() - start);
+            return ontology;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read skill ontology " + source.getDescription(), e);
+        }
+    }
+}
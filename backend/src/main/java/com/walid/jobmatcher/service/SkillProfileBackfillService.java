@@ -0,0 +1,60 @@
+package com.walid.jobmatcher.service;
+
+import com.walid.jobmatcher.entity.Resume;
+import com.walid.jobmatcher.repository.ResumeRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+// Builds the skill profile of resumes uploaded before profiles existed
+@Service
+@RequiredArgsConstructor
+public class SkillProfileBackfillService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SkillProfileBackfillService.class);
+    private static final int BATCH_SIZE = 200;
+
+    private final ResumeRepository resumeRepository;
+    private final MatchingService matchingService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${matching.profile.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    public void onApplicationReady() {
+        if (backfillOnStartup) {
+            backfill();
+        }
+    }
+
+    public int backfill() {
+        int total = 0;
+        int updated;
+        do {
+            updated = transactionTemplate.execute(status -> {
+                List<Resume> batch = resumeRepository.findBySkillProfileIsNull(PageRequest.of(0, BATCH_SIZE));
+                for (Resume resume : batch) {
+                    resume.setSkillProfile(matchingService.buildSkillProfile(resume.getExtractedText()));
+                }
+                resumeRepository.saveAll(batch);
+                return batch.size();
+            });
+            total += updated;
+        } while (updated == BATCH_SIZE);
+        if (total > 0) {
+            logger.info("Backfilled skill profiles for {} resumes", total);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,179 @@
+package com.walid.jobmatcher.service;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * An uploaded file read once and then shared read-only by concurrent consumers. Files up
+ * to the heap limit are copied onto the heap; larger ones are moved to a temp file and
+ * memory-mapped, so they cost page cache rather than heap. Every reader gets its own view
+ * of the same buffer, never a copy.
+ */
+public final class SpooledContent implements AutoCloseable {
+
+    private final String fileName;
+    private final ByteBuffer buffer;
+    private final byte[] array;
+    private final Path file;
+    private volatile String sha256;
+
+    private SpooledContent(String fileName, ByteBuffer buffer, byte[] array, Path file) {
+        this.fileName = fileName;
+        this.buffer = buffer.asReadOnlyBuffer();
+        this.array = array;
+        this.file = file;
+    }
+
+    public static SpooledContent spool(MultipartFile upload, long heapLimit) throws IOException {
+        if (upload.getSize() <= heapLimit) {
+            byte[] bytes = upload.getBytes();
+            return new SpooledContent(upload.getOriginalFilename(), ByteBuffer.wrap(bytes), bytes, null);
+        }
+        Path file = Files.createTempFile("resume-", ".spool");
+        try {
+            // a part already on disk is renamed rather than copied
+            upload.transferTo(file.toFile());
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                return new SpooledContent(upload.getOriginalFilename(), mapped, null, file);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    // Content already read into memory, e.g. a zip entry; the array must not change afterwards
+    public static SpooledContent of(String fileName, byte[] bytes) {
+        return new SpooledContent(fileName, ByteBuffer.wrap(bytes), bytes, null);
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public int size() {
+        return buffer.capacity();
+    }
+
+    public boolean isMapped() {
+        return file != null;
+    }
+
+    // Hex SHA-256 of the content, computed on first use
+    public String sha256() {
+        String hash = sha256;
+        if (hash == null) {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                digest.update(buffer.duplicate());
+                hash = sha256 = HexFormat.of().formatHex(digest.digest());
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return hash;
+    }
+
+    // A fresh stream over the content; safe to call from several threads at once
+    public InputStream openStream() {
+        return new BufferInputStream(buffer.duplicate());
+    }
+
+    public Resource asResource() {
+        return new AbstractResource() {
+            @Override
+            public String getDescription() {
+                return "spooled upload [" + fileName + "]";
+            }
+
+            @Override
+            public String getFilename() {
+                return fileName;
+            }
+
+            @Override
+            public long contentLength() {
+                return size();
+            }
+
+            @Override
+            public InputStream getInputStream() {
+                return openStream();
+            }
+        };
+    }
+
+    // A fresh read-only view of the content, for writing it to a channel
+    ByteBuffer buffer() {
+        return buffer.duplicate();
+    }
+
+    // Storage clients that only take a byte[] or a File read the backing store directly
+    byte[] array() {
+        return array;
+    }
+
+    File file() {
+        return file == null ? null : file.toFile();
+    }
+
+    // Removes the spill file; the mapping itself is released when the buffer is collected
+    @Override
+    public void close() throws IOException {
+        if (file != null) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static final class BufferInputStream extends InputStream {
+        private final ByteBuffer view;
+
+        BufferInputStream(ByteBuffer view) {
+            this.view = view;
+        }
+
+        @Override
+        public int read() {
+            return view.hasRemaining() ? view.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!view.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, view.remaining());
+            view.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            int skipped = (int) Math.max(0, Math.min(n, view.remaining()));
+            view.position(view.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return view.remaining();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.walid.jobmatcher.perf;
+
+import com.walid.jobmatcher.matching.Bm25Scorer;
+import com.walid.jobmatcher.matching.CorpusStatistics;
+import com.walid.jobmatcher.matching.InvertedSkillIndex;
+import com.walid.jobmatcher.matching.KeywordScorer;
+import com.walid.jobmatcher.service.MatchingService;
+import com.walid.jobmatcher.service.SkillOntologyService;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+// The production matching components, wired by hand with the default configuration
+final class Fixtures {
+
+    static final long SEED = 42;
+    static final int SKILLS = 2000;
+    static final double ZIPF_EXPONENT = 1.07;
+
+    private static final ForkJoinPool SCORING_POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    private Fixtures() {
+    }
+
+    static MatchingService matchingService(CorpusStatistics statistics) {
+        return matchingService(statistics, prometheusRegistry());
+    }
+
+    static MatchingService matchingService(CorpusStatistics statistics, MeterRegistry meterRegistry) {
+        SkillOntologyService ontology = new SkillOntologyService("classpath:skill-ontology.txt",
+                new DefaultResourceLoader(), event -> { });
+        return new MatchingService(List.of(new KeywordScorer(), new Bm25Scorer(statistics, 1.2f, 0.75f)),
+                SCORING_POOL, ontology, meterRegistry, 0.5f, 50_000, 16_384);
+    }
+
+    // Prometheus with the percentile histograms application.yml turns on for match.scoring
+    static MeterRegistry prometheusRegistry() {
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        registry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return id.getName().startsWith("match.scoring")
+                        ? DistributionStatisticConfig.builder().percentilesHistogram(true).build().merge(config)
+                        : config;
+            }
+        });
+        return registry;
+    }
+
+    static InvertedSkillIndex candidateIndex(SyntheticCorpus corpus, int resumes) {
+        MatchingService profiler = matchingService(new InvertedSkillIndex());
+        InvertedSkillIndex.Builder builder = new InvertedSkillIndex.Builder();
+        for (int id = 1; id <= resumes; id++) {
+            builder.add(id, profiler.buildSkillProfile(corpus.resume()));
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,87 @@
+package com.walid.jobmatcher.perf;
+
+import com.walid.jobmatcher.matching.HashingEmbedder;
+import com.walid.jobmatcher.matching.HnswIndex;
+import com.walid.jobmatcher.matching.SkillHits;
+import com.walid.jobmatcher.matching.TopK;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nearest-neighbour query time of the HNSW index against the exact scan it replaces, with
+ * the default semantic settings. Vectors are drawn around a few hundred centres, as
+ * resumes cluster by profession, and queries come from the same distribution.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HnswSearchBenchmark {
+
+    private static final int DIMENSIONS = 256;
+    private static final int CENTERS = 200;
+    private static final int QUERIES = 1024;
+
+    @Param({"10000", "50000"})
+    public int vectors;
+
+    @Param({"10", "50"})
+    public int k;
+
+    private float[][] stored;
+    private float[][] queries;
+    private HnswIndex index;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(Fixtures.SEED);
+        float[][] centers = new float[CENTERS][];
+        for (int c = 0; c < CENTERS; c++) {
+            centers[c] = unitVector(random, null, 0);
+        }
+        stored = new float[vectors][];
+        index = new HnswIndex(new HnswIndex.Settings(16, 100, 64));
+        for (int id = 0; id < vectors; id++) {
+            stored[id] = unitVector(random, centers[random.nextInt(CENTERS)], 0.6f);
+            index.add(id, stored[id]);
+        }
+        queries = new float[QUERIES][];
+        for (int q = 0; q < QUERIES; q++) {
+            queries[q] = unitVector(random, centers[random.nextInt(CENTERS)], 0.6f);
+        }
+    }
+
+    @Benchmark
+    public SkillHits hnsw() {
+        return index.search(queries[next++ & (QUERIES - 1)], k);
+    }
+
+    @Benchmark
+    public TopK.Ranked bruteForce() {
+        float[] query = queries[next++ & (QUERIES - 1)];
+        TopK top = new TopK(k);
+        for (int id = 0; id < stored.length; id++) {
+            top.offer(id, HashingEmbedder.dot(query, stored[id]));
+        }
+        return top.ranked(0);
+    }
+
+    private static float[] unitVector(Random random, float[] center, float noise) {
+        float[] vector = new float[DIMENSIONS];
+        double norm = 0;
+        for (int d = 0; d < DIMENSIONS; d++) {
+            vector[d] = (center == null ? 0 : center[d])
+                    + (float) random.nextGaussian() * (center == null ? 1 : noise / (float) Math.sqrt(DIMENSIONS));
+            norm += vector[d] * vector[d];
+        }
+        for (int d = 0; d < DIMENSIONS; d++) {
+            vector[d] /= (float) Math.sqrt(norm);
+        }
+        return vector;
+    }
+}
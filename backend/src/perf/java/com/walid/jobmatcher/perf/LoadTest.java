@@ -0,0 +1,114 @@
+package com.walid.jobmatcher.perf;
+
+import com.walid.jobmatcher.JobmatcherApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * End-to-end load test: starts the application on a random port, seeds recruiters, jobs,
+ * candidates with resumes and applications through the real repositories, then drives a
+ * weighted mix of HTTP requests at a fixed arrival rate and prints per-endpoint latency
+ * percentiles and errors.
+ * <p>
+ * Settings are {@code --loadtest.*} arguments (see {@link Settings}); any other argument,
+ * such as {@code --spring.datasource.url=...}, is passed to the application. The database
+ * is in-memory H2 by default, or the datasource of application.yml with
+ * {@code --loadtest.database=postgres}. Either way the schema is recreated on startup.
+ */
+public final class LoadTest {
+
+    /**
+     * @param rate        requests started per second, whatever the server's latency
+     * @param maxInFlight requests outstanding before the dispatcher waits; waiting still
+     *                    counts towards the latency of the delayed requests
+     * @param mix         relative weight per operation, e.g. {@code --loadtest.mix.apply=30};
+     *                    overrides {@link Workload#DEFAULT_MIX}, and 0 leaves an operation out
+     */
+    public record Settings(@DefaultValue("20") int recruiters,
+                           @DefaultValue("500") int jobs,
+                           @DefaultValue("5000") int candidates,
+                           @DefaultValue("2000") int applications,
+                           @DefaultValue("200") int rate,
+                           @DefaultValue("60s") Duration duration,
+                           @DefaultValue("15s") Duration warmup,
+                           @DefaultValue("256") int maxInFlight,
+                           @DefaultValue("h2") String database,
+                           @DefaultValue("42") long seed,
+                           Map<String, Integer> mix) {
+
+        public Settings {
+            if (recruiters < 1 || jobs < 1 || candidates < 1 || applications < 0) {
+                throw new IllegalArgumentException("loadtest needs at least one recruiter, job and candidate");
+            }
+            if ((long) candidates * jobs < applications) {
+                throw new IllegalArgumentException("loadtest.applications exceeds candidates x jobs");
+            }
+            if (rate < 1 || maxInFlight < 1) {
+                throw new IllegalArgumentException("loadtest.rate and loadtest.max-in-flight must be positive");
+            }
+            if (!database.equals("h2") && !database.equals("postgres")) {
+                throw new IllegalArgumentException("loadtest.database must be h2 or postgres");
+            }
+            Map<String, Integer> weights = new LinkedHashMap<>(Workload.DEFAULT_MIX);
+            if (mix != null) weights.putAll(mix);
+            mix = weights;
+        }
+    }
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new SimpleCommandLinePropertySource(args));
+        Settings settings = Binder.get(environment).bindOrCreate("loadtest", Settings.class);
+
+        // system properties rank below command-line arguments, so these stay overridable
+        if (settings.database().equals("h2")) {
+            defaultProperty("spring.datasource.url", "jdbc:h2:mem:loadtest;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+            defaultProperty("spring.datasource.username", "sa");
+            defaultProperty("spring.datasource.password", "");
+            defaultProperty("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        }
+        // resume files stay in memory, so a run needs no Cloudinary account or network
+        defaultProperty("resume.storage.backend", "memory");
+        defaultProperty("server.port", "0");
+        defaultProperty("spring.devtools.restart.enabled", "false");
+        defaultProperty("spring.devtools.livereload.enabled", "false");
+        // per-request SQL and request logging would measure the console, not the server
+        defaultProperty("spring.jpa.show-sql", "false");
+        defaultProperty("logging.level.com.walid.jobmatcher", "warn");
+
+        try (ConfigurableApplicationContext context = SpringApplication.run(JobmatcherApplication.class, args)) {
+            long start = System.nanoTime();
+            LoadTestSeeder.Seeded seeded = new LoadTestSeeder(context, settings).seed();
+            System.out.printf("Seeded %,d recruiters, %,d jobs, %,d candidates and %,d applications in %,d ms%n",
+                    settings.recruiters(), settings.jobs(), settings.candidates(), settings.applications(),
+                    (System.nanoTime() - start) / 1_000_000);
+
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            Workload workload = new Workload(URI.create("http://localhost:" + port), seeded, settings);
+            if (!settings.warmup().isZero()) {
+                System.out.printf("Warming up for %s at %,d req/s%n", settings.warmup(), settings.rate());
+                workload.run(settings.warmup());
+            }
+            System.out.printf("Measuring for %s at %,d req/s%n", settings.duration(), settings.rate());
+            workload.run(settings.duration()).print(System.out);
+        }
+    }
+
+    private static void defaultProperty(String key, String value) {
+        if (System.getProperty(key) == null) {
+            System.setProperty(key, value);
+        }
+    }
+}
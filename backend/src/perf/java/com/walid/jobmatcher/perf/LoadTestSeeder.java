@@ -0,0 +1,152 @@
+package com.walid.jobmatcher.perf;
+
+import com.walid.jobmatcher.entity.Candidate;
+import com.walid.jobmatcher.entity.JobApplication;
+import com.walid.jobmatcher.entity.JobPost;
+import com.walid.jobmatcher.entity.Recruiter;
+import com.walid.jobmatcher.entity.Resume;
+import com.walid.jobmatcher.repository.CandidateRepository;
+import com.walid.jobmatcher.repository.JobApplicationRepository;
+import com.walid.jobmatcher.repository.JobPostRepository;
+import com.walid.jobmatcher.repository.RecruiterRepository;
+import com.walid.jobmatcher.security.JwtUtil;
+import com.walid.jobmatcher.service.CandidateSkillIndex;
+import com.walid.jobmatcher.service.CandidateVectorIndex;
+import com.walid.jobmatcher.service.JobSkillIndex;
+import com.walid.jobmatcher.service.JobVectorIndex;
+import com.walid.jobmatcher.service.MatchScoreMaterializer;
+import com.walid.jobmatcher.service.MatchingService;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Seeds the database through the application's repositories, so rows look exactly like
+ * ones created through the API, then rebuilds the in-memory indexes over them. Resumes
+ * and job skills come from {@link SyntheticCorpus}; every user shares one password, hashed
+ * once.
+ * <p>
+ * Application {@code n} pairs candidate {@code n % candidates} with job
+ * {@code (n / candidates) % jobs}. Seeded applications take the first pairs and the
+ * workload's apply requests continue the sequence, so no pair is applied to twice.
+ */
+final class LoadTestSeeder {
+
+    static final String PASSWORD = "loadtest-password";
+    private static final int BATCH = 500;
+
+    record Account(long id, String email, String token) {
+    }
+
+    /**
+     * @param jobOwners         index into {@code recruiters} of each job's owner
+     * @param applicationJobs   index into {@code jobIds} of each application's job
+     */
+    record Seeded(List<Account> recruiters, List<Account> candidates, long[] jobIds, int[] jobOwners,
+                  long[] applicationIds, int[] applicationJobs) {
+    }
+
+    private final ApplicationContext context;
+    private final LoadTest.Settings settings;
+    private final SyntheticCorpus corpus;
+    private final TransactionTemplate transactionTemplate;
+
+    LoadTestSeeder(ApplicationContext context, LoadTest.Settings settings) {
+        this.context = context;
+        this.settings = settings;
+        this.corpus = new SyntheticCorpus(Fixtures.SKILLS, Fixtures.ZIPF_EXPONENT, settings.seed());
+        this.transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    Seeded seed() {
+        String passwordHash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+        JwtUtil jwtUtil = context.getBean(JwtUtil.class);
+        MatchingService matchingService = context.getBean(MatchingService.class);
+
+        List<Recruiter> recruiters = new ArrayList<>();
+        for (int i = 0; i < settings.recruiters(); i++) {
+            Recruiter recruiter = new Recruiter();
+            recruiter.setEmail("recruiter" + i + "@loadtest.local");
+            recruiter.setFullName("Recruiter " + i);
+            recruiter.setPassword(passwordHash);
+            recruiters.add(recruiter);
+        }
+        recruiters = saveInBatches(recruiters, context.getBean(RecruiterRepository.class)::saveAll);
+
+        List<JobPost> jobs = new ArrayList<>();
+        int[] jobOwners = new int[settings.jobs()];
+        for (int j = 0; j < settings.jobs(); j++) {
+            jobOwners[j] = j % recruiters.size();
+            List<String> skills = corpus.requiredSkills(3, 10);
+            JobPost job = new JobPost();
+            job.setTitle(skills.get(0) + " Engineer " + j);
+            job.setDescription("Join our team to build products with " + String.join(", ", skills) + ".");
+            job.setRequiredSkills(skills);
+            job.setRecruiter(recruiters.get(jobOwners[j]));
+            jobs.add(job);
+        }
+        jobs = saveInBatches(jobs, context.getBean(JobPostRepository.class)::saveAll);
+
+        List<Candidate> candidates = new ArrayList<>();
+        for (int c = 0; c < settings.candidates(); c++) {
+            Candidate candidate = new Candidate();
+            candidate.setEmail("candidate" + c + "@loadtest.local");
+            candidate.setFullName("Candidate " + c);
+            candidate.setPassword(passwordHash);
+            Resume resume = new Resume();
+            resume.setOriginalFileName("candidate" + c + ".pdf");
+            resume.setExtractedText(corpus.resume());
+            resume.setSkillProfile(matchingService.buildSkillProfile(resume.getExtractedText()));
+            resume.setCandidate(candidate);
+            candidate.setResume(resume);
+            candidates.add(candidate);
+        }
+        candidates = saveInBatches(candidates, context.getBean(CandidateRepository.class)::saveAll);
+
+        List<JobApplication> applications = new ArrayList<>();
+        int[] applicationJobs = new int[settings.applications()];
+        for (int n = 0; n < settings.applications(); n++) {
+            applicationJobs[n] = (n / candidates.size()) % jobs.size();
+            JobApplication application = new JobApplication();
+            application.setCandidate(candidates.get(n % candidates.size()));
+            application.setJobPost(jobs.get(applicationJobs[n]));
+            application.setAppliedAt(LocalDateTime.now());
+            applications.add(application);
+        }
+        applications = saveInBatches(applications, context.getBean(JobApplicationRepository.class)::saveAll);
+
+        context.getBean(CandidateSkillIndex.class).rebuild();
+        context.getBean(JobSkillIndex.class).rebuild();
+        context.getBean(CandidateVectorIndex.class).rebuild();
+        context.getBean(JobVectorIndex.class).rebuild();
+        MatchScoreMaterializer materializer = context.getBean(MatchScoreMaterializer.class);
+        if (materializer.isEnabled()) {
+            materializer.onApplicationReady();
+        }
+
+        return new Seeded(
+                recruiters.stream().map(r -> new Account(r.getId(), r.getEmail(),
+                        jwtUtil.generateToken(r.getEmail(), "RECRUITER", r.getFullName()))).toList(),
+                candidates.stream().map(c -> new Account(c.getId(), c.getEmail(),
+                        jwtUtil.generateToken(c.getEmail(), "CANDIDATE", c.getFullName()))).toList(),
+                jobs.stream().mapToLong(JobPost::getId).toArray(),
+                jobOwners,
+                applications.stream().mapToLong(JobApplication::getId).toArray(),
+                applicationJobs);
+    }
+
+    private <T> List<T> saveInBatches(List<T> entities, Function<List<T>, List<T>> saveAll) {
+        List<T> saved = new ArrayList<>(entities.size());
+        for (int from = 0; from < entities.size(); from += BATCH) {
+            List<T> batch = entities.subList(from, Math.min(entities.size(), from + BATCH));
+            saved.addAll(transactionTemplate.execute(status -> saveAll.apply(batch)));
+        }
+        return saved;
+    }
+}
@@ -0,0 +1,62 @@
+package com.walid.jobmatcher.perf;
+
+import com.walid.jobmatcher.matching.InvertedSkillIndex;
+import com.walid.jobmatcher.matching.MatchScorer;
+import com.walid.jobmatcher.matching.NormalizedSkill;
+import com.walid.jobmatcher.matching.SkillHits;
+import com.walid.jobmatcher.matching.TopK;
+import com.walid.jobmatcher.service.MatchingService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ranking the whole candidate pool for one job, as the recruiter endpoint does: every
+ * hit from the skill index, and the first page selected from chunked scoring.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class PoolScoringBenchmark {
+
+    private static final int JOBS = 64;
+
+    @Param({"1000", "10000", "100000"})
+    public int resumes;
+
+    @Param({"keyword", "bm25"})
+    public String scorer;
+
+    private MatchingService matchingService;
+    private InvertedSkillIndex index;
+    private MatchScorer matchScorer;
+    private List<NormalizedSkill>[] jobs;
+    private int next;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        SyntheticCorpus corpus = new SyntheticCorpus(Fixtures.SKILLS, Fixtures.ZIPF_EXPONENT, Fixtures.SEED);
+        index = Fixtures.candidateIndex(corpus, resumes);
+        matchingService = Fixtures.matchingService(index);
+        matchScorer = matchingService.scorer(scorer);
+        jobs = new List[JOBS];
+        for (int i = 0; i < JOBS; i++) {
+            jobs[i] = matchingService.normalize(corpus.requiredSkills(4, 10));
+        }
+    }
+
+    @Benchmark
+    public SkillHits allHits() {
+        return index.match(jobs[next++ & (JOBS - 1)], matchScorer);
+    }
+
+    @Benchmark
+    public TopK.Ranked firstPage() {
+        return matchingService.selectTop(index.query(jobs[next++ & (JOBS - 1)], matchScorer), 0f, 0, 50);
+    }
+}
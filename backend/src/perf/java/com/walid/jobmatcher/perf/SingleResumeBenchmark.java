@@ -0,0 +1,49 @@
+package com.walid.jobmatcher.perf;
+
+import com.walid.jobmatcher.matching.InvertedSkillIndex;
+import com.walid.jobmatcher.matching.NormalizedSkill;
+import com.walid.jobmatcher.service.MatchingService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scoring one resume against one job: building the upload-time skill profile and
+ * checking the job's skills against it.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SingleResumeBenchmark {
+
+    private static final int SAMPLES = 256;
+
+    private MatchingService matchingService;
+    private String[] resumes;
+    private List<NormalizedSkill>[] jobs;
+    private int next;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        SyntheticCorpus corpus = new SyntheticCorpus(Fixtures.SKILLS, Fixtures.ZIPF_EXPONENT, Fixtures.SEED);
+        matchingService = Fixtures.matchingService(new InvertedSkillIndex());
+        resumes = corpus.resumes(SAMPLES).toArray(String[]::new);
+        jobs = new List[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            jobs[i] = matchingService.normalize(corpus.requiredSkills(4, 10));
+        }
+    }
+
+    @Benchmark
+    public int profileAndScore() {
+        int i = next++ & (SAMPLES - 1);
+        Set<String> profile = matchingService.buildSkillProfile(resumes[i]);
+        return matchingService.calculateMatchScore(jobs[i], profile);
+    }
+}
@@ -0,0 +1,116 @@
+package com.walid.jobmatcher.perf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Deterministic resumes and job skill lists for benchmarks. Skill popularity is
+ * Zipfian, as in real postings: a few skills (Java, SQL, Git) appear everywhere, most
+ * rarely. Resumes are 350 to 650 words of template sentences with skill mentions mixed
+ * in, so their profiles have the size and shape of uploaded ones. The same seed always
+ * produces the same corpus.
+ */
+public final class SyntheticCorpus {
+
+    private static final String[] COMMON_SKILLS = {
+            "Java", "SQL", "Git", "JavaScript", "Python", "Spring Boot", "Docker", "REST API", "React",
+            "PostgreSQL", "AWS", "Kubernetes", "TypeScript", "Linux", "CI/CD", "Node.js", "Agile", "MySQL",
+            "Microservices", "Kafka", "Redis", "HTML", "CSS", "Angular", "MongoDB", "Terraform", "Jenkins",
+            "C#", ".NET", "Go", "Scala", "Hibernate", "GraphQL", "Elasticsearch", "RabbitMQ", "Azure",
+            "Google Cloud Platform", "Machine Learning", "Pandas", "Spark", "Hadoop", "Airflow", "Vue",
+            "Next.js", "C++", "Rust", "Kotlin", "Swift", "Figma", "Jira", "Scrum", "Unit Testing", "JUnit",
+            "Mockito", "Selenium", "Cypress", "Gradle", "Maven", "Ansible", "Prometheus", "Grafana", "OAuth",
+            "JWT", "gRPC", "WebSockets", "Nginx", "Tomcat", "Oracle", "DynamoDB", "Snowflake", "dbt",
+            "Tableau", "Power BI", "Excel", "TensorFlow", "PyTorch", "NLP", "Computer Vision", "Django",
+            "Flask", "FastAPI", "Ruby on Rails", "PHP", "Laravel", "Symfony", "Bash", "PowerShell"};
+    private static final String[] FILLER = {
+            "Designed and delivered features end to end with a small cross functional team.",
+            "Reduced page load time and cut infrastructure costs for the main customer portal.",
+            "Mentored junior engineers and ran weekly code review sessions.",
+            "Migrated legacy services to a modern architecture without downtime.",
+            "Worked closely with product managers to refine requirements and estimates.",
+            "Owned the on call rotation and wrote runbooks for recurring incidents.",
+            "Built internal tooling that saved the support team several hours every week.",
+            "Improved test coverage and introduced automated quality gates in the pipeline.",
+            "Led the redesign of the billing workflow used by thousands of customers.",
+            "Presented technical proposals to stakeholders and documented the decisions.",
+            "Collaborated with designers to ship an accessible and responsive interface.",
+            "Analysed production metrics to find and fix performance bottlenecks.",
+            "Bachelor of Science in Computer Science with a focus on distributed systems.",
+            "Fluent in English and French, comfortable working with remote teams.",
+            "Volunteered as a coding instructor for a local community program.",
+            "Responsible for data modelling, schema migrations and query tuning.",
+            "Integrated third party payment and identity providers into the platform.",
+            "Introduced feature flags and gradual rollouts to reduce release risk.",
+            "Coordinated releases across three teams and two time zones.",
+            "Wrote technical articles and spoke at internal engineering meetups."};
+
+    private final String[] skills;
+    private final double[] cumulative;
+    private final Random random;
+
+    /**
+     * @param skillCount vocabulary size; beyond the common skills, names are synthetic
+     * @param exponent   Zipf exponent; around 1 for real skill frequencies
+     */
+    public SyntheticCorpus(int skillCount, double exponent, long seed) {
+        this.skills = new String[skillCount];
+        for (int i = 0; i < skillCount; i++) {
+            skills[i] = i < COMMON_SKILLS.length ? COMMON_SKILLS[i] : "Framework " + Integer.toString(i, 36);
+        }
+        this.cumulative = new double[skillCount];
+        double sum = 0;
+        for (int rank = 1; rank <= skillCount; rank++) {
+            sum += 1 / Math.pow(rank, exponent);
+            cumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < skillCount; i++) {
+            cumulative[i] /= sum;
+        }
+        this.random = new Random(seed);
+    }
+
+    public String skill() {
+        int i = Arrays.binarySearch(cumulative, random.nextDouble());
+        return skills[Math.min(skills.length - 1, i < 0 ? -i - 1 : i)];
+    }
+
+    public List<String> requiredSkills(int min, int max) {
+        int count = min + random.nextInt(max - min + 1);
+        Set<String> required = new LinkedHashSet<>();
+        while (required.size() < count) {
+            required.add(skill());
+        }
+        return new ArrayList<>(required);
+    }
+
+    public String resume() {
+        int words = 350 + random.nextInt(301);
+        StringBuilder text = new StringBuilder(words * 7);
+        int written = 0;
+        while (written < words) {
+            if (random.nextInt(4) == 0) {
+                String sentence = "Worked with " + skill() + ", " + skill() + " and " + skill() + ". ";
+                text.append(sentence);
+                written += 5;
+            } else {
+                String sentence = FILLER[random.nextInt(FILLER.length)];
+                text.append(sentence).append(' ');
+                written += sentence.split(" ").length;
+            }
+        }
+        return text.toString();
+    }
+
+    public List<String> resumes(int count) {
+        List<String> resumes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            resumes.add(resume());
+        }
+        return resumes;
+    }
+}
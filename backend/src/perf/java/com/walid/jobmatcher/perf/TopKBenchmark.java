@@ -0,0 +1,50 @@
+package com.walid.jobmatcher.perf;
+
+import com.walid.jobmatcher.matching.InvertedSkillIndex;
+import com.walid.jobmatcher.matching.SkillHits;
+import com.walid.jobmatcher.matching.TopK;
+import com.walid.jobmatcher.service.MatchingService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Selecting one page from a scored pool. Scores are small integers, as keyword scores
+ * are, so most offers tie with the heap's weakest entry.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TopKBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int hits;
+
+    @Param({"10", "200"})
+    public int limit;
+
+    private MatchingService matchingService;
+    private SkillHits scored;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(Fixtures.SEED);
+        int[] ids = new int[hits];
+        float[] scores = new float[hits];
+        for (int i = 0; i < hits; i++) {
+            ids[i] = i * 2 + 1;
+            scores[i] = 1 + (float) Math.floor(-Math.log(1 - random.nextDouble()) * 1.5);
+        }
+        scored = new SkillHits(ids, scores);
+        matchingService = Fixtures.matchingService(new InvertedSkillIndex());
+    }
+
+    @Benchmark
+    public TopK.Ranked selectTop() {
+        return matchingService.selectTop(scored, 0f, 0, limit);
+    }
+}
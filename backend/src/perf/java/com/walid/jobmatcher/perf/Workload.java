@@ -0,0 +1,252 @@
+package com.walid.jobmatcher.perf;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model HTTP workload: request {@code i} is due at {@code start + i / rate}, whether
+ * or not earlier requests have completed. Latency runs from the due time, not the send,
+ * so when the server falls behind the queueing delay is reported instead of silently
+ * lowering the offered rate (coordinated omission).
+ */
+final class Workload {
+
+    static final Map<String, Integer> DEFAULT_MIX = defaultMix();
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final String[] STATUSES = {"REVIEWED", "REJECTED", "ACCEPTED"};
+
+    enum Operation {
+        LOGIN("login"),
+        LIST_JOBS("list-jobs"),
+        MATCH_CANDIDATES("match-candidates"),
+        MATCH_JOBS("match-jobs"),
+        APPLY("apply"),
+        UPDATE_STATUS("update-status");
+
+        final String key;
+
+        Operation(String key) {
+            this.key = key;
+        }
+
+        static Operation of(String key) {
+            for (Operation operation : values()) {
+                if (operation.key.equals(key)) return operation;
+            }
+            throw new IllegalArgumentException("Unknown loadtest.mix operation: " + key);
+        }
+    }
+
+    private final URI base;
+    private final LoadTestSeeder.Seeded seeded;
+    private final LoadTest.Settings settings;
+    private final HttpClient client;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final SplittableRandom random;
+    // continues the seeder's candidate/job pair sequence
+    private final AtomicLong nextApplication;
+
+    Workload(URI base, LoadTestSeeder.Seeded seeded, LoadTest.Settings settings) {
+        this.base = base;
+        this.seeded = seeded;
+        this.settings = settings;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.operations = new Operation[settings.mix().size()];
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : settings.mix().entrySet()) {
+            if (entry.getValue() < 0) {
+                throw new IllegalArgumentException("loadtest.mix weights must not be negative");
+            }
+            operations[i] = Operation.of(entry.getKey());
+            total += entry.getValue();
+            cumulativeWeights[i++] = total;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("loadtest.mix needs at least one positive weight");
+        }
+        if (seeded.applicationIds().length == 0 && settings.mix().getOrDefault(Operation.UPDATE_STATUS.key, 0) > 0) {
+            throw new IllegalArgumentException("update-status needs loadtest.applications > 0");
+        }
+        this.random = new SplittableRandom(settings.seed());
+        this.nextApplication = new AtomicLong(seeded.applicationIds().length);
+    }
+
+    Report run(Duration duration) throws InterruptedException {
+        Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new Stats());
+        }
+        Semaphore inFlight = new Semaphore(settings.maxInFlight());
+        long interval = TimeUnit.SECONDS.toNanos(1) / settings.rate();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long sent = 0;
+        for (long due = start; due < end; due = start + ++sent * interval) {
+            long wait = due - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+            inFlight.acquire();
+            Operation operation = next();
+            Stats stat = stats.get(operation);
+            long dueAt = due;
+            client.sendAsync(request(operation), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        stat.record(System.nanoTime() - dueAt, failure == null ? response.statusCode() : -1);
+                        inFlight.release();
+                    });
+        }
+        // let the last requests finish so they are counted
+        inFlight.tryAcquire(settings.maxInFlight(), 1, TimeUnit.MINUTES);
+        return new Report(stats, System.nanoTime() - start);
+    }
+
+    private Operation next() {
+        int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; ; i++) {
+            if (pick < cumulativeWeights[i]) return operations[i];
+        }
+    }
+
+    private HttpRequest request(Operation operation) {
+        return switch (operation) {
+            case LOGIN -> {
+                boolean recruiter = random.nextInt(10) == 0;
+                LoadTestSeeder.Account account = pick(recruiter ? seeded.recruiters() : seeded.candidates());
+                yield HttpRequest.newBuilder(base.resolve("/auth/login"))
+                        .timeout(TIMEOUT)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"" + account.email()
+                                + "\",\"password\":\"" + LoadTestSeeder.PASSWORD + "\"}"))
+                        .build();
+            }
+            case LIST_JOBS -> authorized("/api/job-posts", pick(seeded.candidates())).GET().build();
+            case MATCH_CANDIDATES -> {
+                int job = random.nextInt(seeded.jobIds().length);
+                yield authorized("/api/match/job/" + seeded.jobIds()[job] + "/candidates?limit=20",
+                        seeded.recruiters().get(seeded.jobOwners()[job])).GET().build();
+            }
+            case MATCH_JOBS -> {
+                LoadTestSeeder.Account candidate = pick(seeded.candidates());
+                yield authorized("/api/match/candidate/" + candidate.id() + "/jobs?limit=20", candidate).GET().build();
+            }
+            case APPLY -> {
+                // pairs wrap around once every candidate has applied to every job; the
+                // repeats are then rejected and show up as errors
+                long n = nextApplication.getAndIncrement();
+                int candidates = seeded.candidates().size();
+                LoadTestSeeder.Account candidate = seeded.candidates().get((int) (n % candidates));
+                long job = seeded.jobIds()[(int) ((n / candidates) % seeded.jobIds().length)];
+                yield authorized("/api/candidate/" + candidate.id() + "/apply/" + job, candidate)
+                        .POST(HttpRequest.BodyPublishers.noBody()).build();
+            }
+            case UPDATE_STATUS -> {
+                int application = random.nextInt(seeded.applicationIds().length);
+                LoadTestSeeder.Account owner = seeded.recruiters()
+                        .get(seeded.jobOwners()[seeded.applicationJobs()[application]]);
+                yield authorized("/api/job-posts/applications/" + seeded.applicationIds()[application] + "/status", owner)
+                        .header("Content-Type", "application/json")
+                        .method("PATCH", HttpRequest.BodyPublishers.ofString(
+                                "{\"status\":\"" + STATUSES[random.nextInt(STATUSES.length)] + "\"}"))
+                        .build();
+            }
+        };
+    }
+
+    private HttpRequest.Builder authorized(String path, LoadTestSeeder.Account account) {
+        return HttpRequest.newBuilder(base.resolve(path))
+                .timeout(TIMEOUT)
+                .header("Authorization", "Bearer " + account.token());
+    }
+
+    private LoadTestSeeder.Account pick(List<LoadTestSeeder.Account> accounts) {
+        return accounts.get(random.nextInt(accounts.size()));
+    }
+
+    private static Map<String, Integer> defaultMix() {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        mix.put(Operation.LOGIN.key, 5);
+        mix.put(Operation.LIST_JOBS.key, 15);
+        mix.put(Operation.MATCH_CANDIDATES.key, 25);
+        mix.put(Operation.MATCH_JOBS.key, 30);
+        mix.put(Operation.APPLY.key, 15);
+        mix.put(Operation.UPDATE_STATUS.key, 10);
+        return Collections.unmodifiableMap(mix);
+    }
+
+    static final class Stats {
+        private final Histogram latency = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        private final LongAdder errors = new LongAdder();
+
+        // status -1 is a request that failed without a response
+        void record(long nanos, int status) {
+            latency.recordValue(Math.min(HIGHEST_MICROS, TimeUnit.NANOSECONDS.toMicros(nanos)));
+            statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+            if (status < 0 || status >= 400) errors.increment();
+        }
+    }
+
+    record Report(Map<Operation, Stats> stats, long elapsedNanos) {
+
+        void print(PrintStream out) {
+            double seconds = elapsedNanos / 1e9;
+            out.printf("%n%-17s %9s %8s %8s %9s %9s %9s %9s  %s%n",
+                    "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "statuses");
+            long requests = 0;
+            long errors = 0;
+            Histogram all = new Histogram(HIGHEST_MICROS, 3);
+            for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+                Stats stat = entry.getValue();
+                long count = stat.latency.getTotalCount();
+                if (count == 0) continue;
+                requests += count;
+                errors += stat.errors.sum();
+                all.add(stat.latency);
+                Map<Integer, Long> statuses = new TreeMap<>();
+                stat.statuses.forEach((status, n) -> statuses.put(status, n.sum()));
+                row(out, entry.getKey().key, stat.latency, stat.errors.sum(), seconds, statuses.toString());
+            }
+            row(out, "total", all, errors, seconds, "");
+            out.printf("%,d requests in %.1f s, %.2f%% errors%n", requests, seconds,
+                    requests == 0 ? 0 : 100.0 * errors / requests);
+        }
+
+        private static void row(PrintStream out, String name, Histogram latency, long errors, double seconds,
+                                String statuses) {
+            out.printf("%-17s %,9d %,8d %8.1f %9.2f %9.2f %9.2f %9.2f  %s%n", name, latency.getTotalCount(), errors,
+                    latency.getTotalCount() / seconds,
+                    latency.getValueAtPercentile(50) / 1000.0,
+                    latency.getValueAtPercentile(99) / 1000.0,
+                    latency.getValueAtPercentile(99.9) / 1000.0,
+                    latency.getMaxValue() / 1000.0,
+                    statuses);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.walid.jobmatcher.config;
+
+import com.walid.jobmatcher.security.JwtFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ActuatorSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void health_IsPublic() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+    }
+
+    @Test
+    void prometheus_OnTheApiPort_RequiresAToken() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/metrics")).andExpect(status().isUnauthorized());
+    }
+
+    // A mock environment cannot serve a second port, so the filter's rule is checked directly
+    @Test
+    void prometheus_OnlyOnASeparateManagementPort_IsScrapedWithoutAToken() {
+        JwtFilter separatePort = new JwtFilter(null, null, new SimpleMeterRegistry(), 8080, 9464);
+        JwtFilter sharedPort = new JwtFilter(null, null, new SimpleMeterRegistry(), 8080, 8080);
+
+        assertTrue(separatePort.isPublicActuator(request("/actuator/prometheus", 9464)));
+        assertFalse(separatePort.isPublicActuator(request("/actuator/prometheus", 8080)));
+        assertFalse(separatePort.isPublicActuator(request("/actuator/metrics", 9464)));
+        assertFalse(sharedPort.isPublicActuator(request("/actuator/prometheus", 8080)));
+    }
+
+    private static MockHttpServletRequest request(String uri, int localPort) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setLocalPort(localPort);
+        return request;
+    }
+}
@@ -0,0 +1,126 @@
+package com.walid.jobmatcher.controller;
+
+import com.walid.jobmatcher.entity.Candidate;
+import com.walid.jobmatcher.entity.Resume;
+import com.walid.jobmatcher.repository.CandidateRepository;
+import com.walid.jobmatcher.repository.ResumeRepository;
+import com.walid.jobmatcher.security.JwtUtil;
+import com.walid.jobmatcher.service.BlobContent;
+import com.walid.jobmatcher.service.InMemoryBlobStore;
+import com.walid.jobmatcher.service.ResumeFileCache;
+import com.walid.jobmatcher.service.ResumeFileStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CandidateResumeFileTest {
+
+    private static final byte[] CONTENT = "%PDF-1.4 resume of a backend engineer".getBytes(StandardCharsets.UTF_8);
+
+    // Serves every file through the Cloudinary cache, counting the downloads that miss it
+    static final class InMemoryStorage extends ResumeFileStorage {
+        final AtomicInteger fetches = new AtomicInteger();
+        private final ResumeFileCache cache;
+
+        InMemoryStorage(ResumeFileCache cache) {
+            super(new InMemoryBlobStore());
+            this.cache = cache;
+        }
+
+        @Override
+        public BlobContent open(String fileUrl) throws IOException {
+            return BlobContent.of(cache.open(fileUrl, () -> {
+                fetches.incrementAndGet();
+                return new ByteArrayInputStream(CONTENT);
+            }));
+        }
+    }
+
+    @TestConfiguration
+    static class StorageConfig {
+        @Bean
+        @Primary
+        InMemoryStorage inMemoryStorage(ResumeFileCache cache) {
+            return new InMemoryStorage(cache);
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InMemoryStorage storage;
+
+    @Autowired
+    private CandidateRepository candidateRepository;
+
+    @Autowired
+    private ResumeRepository resumeRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private Long candidateId;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        String run = String.valueOf(System.nanoTime());
+        Candidate candidate = new Candidate();
+        candidate.setEmail("file-" + run + "@example.com");
+        candidate.setFullName("File Candidate");
+        candidate.setPassword("password");
+        candidate = candidateRepository.save(candidate);
+        Resume resume = new Resume();
+        resume.setCandidate(candidate);
+        resume.setOriginalFileName("resume.pdf");
+        resume.setFilePath("https://files.example.com/" + run + ".pdf");
+        resume.setContentHash("abc" + run);
+        resumeRepository.save(resume);
+        candidateId = candidate.getId();
+        token = "Bearer " + jwtUtil.generateToken(candidate.getEmail(), "CANDIDATE");
+    }
+
+    @Test
+    void getResumeFile_ServesRangesAndRevalidationsFromTheCache() throws Exception {
+        String url = "/api/candidate/" + candidateId + "/resume/file";
+        MvcResult full = mockMvc.perform(get(url).header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/pdf"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, CONTENT.length))
+                .andExpect(content().bytes(CONTENT))
+                .andReturn();
+        String etag = full.getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(url).header(HttpHeaders.AUTHORIZATION, token).header(HttpHeaders.RANGE, "bytes=5-7"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 5-7/" + CONTENT.length))
+                .andExpect(content().string("1.4"));
+
+        mockMvc.perform(get(url).header(HttpHeaders.AUTHORIZATION, token).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get(url).header(HttpHeaders.AUTHORIZATION, token)
+                        .header(HttpHeaders.RANGE, "bytes=" + CONTENT.length + "-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable());
+        assertEquals(1, storage.fetches.get());
+    }
+}
@@ -0,0 +1,190 @@
+package com.walid.jobmatcher.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.walid.jobmatcher.entity.Candidate;
+import com.walid.jobmatcher.entity.JobPost;
+import com.walid.jobmatcher.entity.Resume;
+import com.walid.jobmatcher.repository.CandidateRepository;
+import com.walid.jobmatcher.repository.JobPostRepository;
+import com.walid.jobmatcher.repository.ResumeRepository;
+import com.walid.jobmatcher.security.JwtUtil;
+import com.walid.jobmatcher.service.CandidateSkillIndex;
+import com.walid.jobmatcher.service.MatchingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class MatchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CandidateRepository candidateRepository;
+
+    @Autowired
+    private ResumeRepository resumeRepository;
+
+    @Autowired
+    private JobPostRepository jobPostRepository;
+
+    @Autowired
+    private CandidateSkillIndex candidateSkillIndex;
+
+    @Autowired
+    private MatchingService matchingService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private Candidate javaCandidate;
+    private Candidate pythonCandidate;
+    private JobPost javaJob;
+    private JobPost pythonJob;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        String run = String.valueOf(System.nanoTime());
+        javaCandidate = candidate("java-" + run + "@example.com", "Backend developer: Java, Spring Boot, Kafka");
+        pythonCandidate = candidate("python-" + run + "@example.com", "Data engineer: Python, Kafka");
+        javaJob = jobPostRepository.save(jobPost("Java Engineer", Arrays.asList("Java", "Kafka")));
+        pythonJob = jobPostRepository.save(jobPost("Python Engineer", Arrays.asList("Python")));
+        candidateSkillIndex.rebuild();
+        token = "Bearer " + jwtUtil.generateToken(javaCandidate.getEmail(), "CANDIDATE");
+    }
+
+    @Test
+    void matchCandidates_IncludesResumeTextOnlyOnRequest() throws Exception {
+        String url = "/api/match/job/" + javaJob.getId() + "/candidates";
+        JsonNode match = find(mockMvc.perform(get(url).header(HttpHeaders.AUTHORIZATION, token)
+                .param("limit", String.valueOf(MatchingService.MAX_LIMIT))), javaCandidate.getId());
+        assertFalse(match.has("resumeText"));
+
+        match = find(mockMvc.perform(get(url).header(HttpHeaders.AUTHORIZATION, token)
+                .param("limit", String.valueOf(MatchingService.MAX_LIMIT)).param("include", "resumeText")), javaCandidate.getId());
+        assertEquals("Backend developer: Java, Spring Boot, Kafka", match.get("resumeText").asText());
+
+        mockMvc.perform(get(url).header(HttpHeaders.AUTHORIZATION, token).param("include", "resume"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void matchBatch_StreamsOneLinePerJobInRequestOrder() throws Exception {
+        List<JsonNode> lines = batch(Map.of(
+                "jobIds", List.of(pythonJob.getId(), javaJob.getId(), pythonJob.getId()),
+                "candidateIds", List.of(javaCandidate.getId(), pythonCandidate.getId())));
+
+        assertEquals(2, lines.size());
+        assertEquals(pythonJob.getId(), lines.get(0).get("jobId").asLong());
+        assertEquals(List.of(pythonCandidate.getId()), candidateIds(lines.get(0)));
+        assertEquals(javaJob.getId(), lines.get(1).get("jobId").asLong());
+        assertEquals(2, lines.get(1).get("total").asInt());
+        assertEquals(List.of(javaCandidate.getId(), pythonCandidate.getId()), candidateIds(lines.get(1)));
+    }
+
+    @Test
+    void matchBatch_RestrictsRankingsToTheGivenCandidates() throws Exception {
+        List<JsonNode> lines = batch(Map.of("jobIds", List.of(javaJob.getId()),
+                "candidateIds", List.of(pythonCandidate.getId())));
+
+        assertEquals(1, lines.size());
+        assertEquals(1, lines.get(0).get("total").asInt());
+        assertEquals(List.of(pythonCandidate.getId()), candidateIds(lines.get(0)));
+    }
+
+    @Test
+    void matchBatch_RejectsInvalidRequestsBeforeStreaming() throws Exception {
+        long unknown = jobPostRepository.findAllIds().stream().mapToLong(Long::longValue).max().orElse(0) + 1000;
+        perform(Map.of("jobIds", List.of(javaJob.getId(), unknown)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Job posts not found: [" + unknown + "]"));
+        perform(Map.of("jobIds", List.of())).andExpect(status().isBadRequest());
+        perform(Map.of("jobIds", LongStream.rangeClosed(1, 1001).boxed().toList())).andExpect(status().isBadRequest());
+        perform(Map.of("jobIds", List.of(javaJob.getId()), "candidateIds", Arrays.asList(javaCandidate.getId(), null)))
+                .andExpect(status().isBadRequest());
+        perform(Map.of("jobIds", List.of(javaJob.getId()), "candidateIds", List.of(1L << 40)))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode find(ResultActions matches, Long candidateId) throws Exception {
+        String body = matches.andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        for (JsonNode match : objectMapper.readTree(body)) {
+            if (match.get("id").asLong() == candidateId) return match;
+        }
+        throw new AssertionError("candidate " + candidateId + " not ranked: " + body);
+    }
+
+    private List<JsonNode> batch(Map<String, Object> request) throws Exception {
+        MvcResult started = perform(request).andExpect(request().asyncStarted()).andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        return body.lines().map(line -> {
+            try {
+                return objectMapper.readTree(line);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }).toList();
+    }
+
+    private ResultActions perform(Map<String, Object> request) throws Exception {
+        return mockMvc.perform(post("/api/match/batch")
+                .header(HttpHeaders.AUTHORIZATION, token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)));
+    }
+
+    private static List<Long> candidateIds(JsonNode line) {
+        return line.get("candidates").findValuesAsText("id").stream().map(Long::valueOf).toList();
+    }
+
+    private Candidate candidate(String email, String resumeText) {
+        Candidate candidate = new Candidate();
+        candidate.setEmail(email);
+        candidate.setFullName("Match Candidate");
+        candidate.setPassword("password");
+        candidate = candidateRepository.save(candidate);
+        Resume resume = new Resume();
+        resume.setCandidate(candidate);
+        resume.setExtractedText(resumeText);
+        resume.setSkillProfile(matchingService.buildSkillProfile(resumeText));
+        resumeRepository.save(resume);
+        return candidate;
+    }
+
+    private static JobPost jobPost(String title, List<String> skills) {
+        JobPost jobPost = new JobPost();
+        jobPost.setTitle(title);
+        jobPost.setDescription(title + " description");
+        jobPost.setRequiredSkills(skills);
+        return jobPost;
+    }
+}
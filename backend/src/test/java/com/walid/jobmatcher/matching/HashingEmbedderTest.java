@@ -0,0 +1,29 @@
+package com.walid.jobmatcher.matching;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashingEmbedderTest {
+
+    private final HashingEmbedder embedder = new HashingEmbedder(256, 42);
+
+    @Test
+    void embed_IsDeterministicAndUnitLength() {
+        float[] first = embedder.embed("Backend engineer: Java, Spring Boot, PostgreSQL");
+        float[] second = new HashingEmbedder(256, 42).embed("Backend engineer: Java, Spring Boot, PostgreSQL");
+
+        assertArrayEquals(first, second);
+        assertEquals(1f, HashingEmbedder.dot(first, first), 1e-5);
+        assertArrayEquals(new float[256], embedder.embed("  "));
+    }
+
+    @Test
+    void embed_PlacesSpellingVariantsCloserThanUnrelatedText() {
+        float[] query = embedder.embed("Built microservices with Postgres and Kubernetes");
+        float[] variant = embedder.embed("Microservice development on PostgreSQL, deployed to Kubernetes clusters");
+        float[] unrelated = embedder.embed("Watercolour illustration and children's book layout");
+
+        assertTrue(HashingEmbedder.dot(query, variant) > HashingEmbedder.dot(query, unrelated) + 0.2f);
+    }
+}
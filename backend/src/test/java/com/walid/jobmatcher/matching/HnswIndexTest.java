@@ -0,0 +1,103 @@
+package com.walid.jobmatcher.matching;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HnswIndexTest {
+
+    private static final int DIMENSIONS = 64;
+    private static final int K = 10;
+
+    private final HnswIndex.Settings settings = new HnswIndex.Settings(16, 100, 64);
+
+    @Test
+    void search_OnClusteredVectors_RecallsBruteForceNeighbours() {
+        Random random = new Random(7);
+        float[][] centers = new float[40][];
+        for (int c = 0; c < centers.length; c++) {
+            centers[c] = randomUnitVector(random, null, 0);
+        }
+        float[][] vectors = new float[5000][];
+        HnswIndex index = new HnswIndex(settings);
+        for (int id = 0; id < vectors.length; id++) {
+            vectors[id] = randomUnitVector(random, centers[random.nextInt(centers.length)], 0.6f);
+            index.add(id, vectors[id]);
+        }
+
+        // query time against the exact scan is measured by HnswSearchBenchmark
+        int queries = 200;
+        int found = 0;
+        for (int q = 0; q < queries; q++) {
+            float[] query = randomUnitVector(random, centers[random.nextInt(centers.length)], 0.6f);
+            Set<Integer> exact = bruteForce(vectors, query);
+            for (int id : index.search(query, K).ids()) {
+                if (exact.contains(id)) found++;
+            }
+        }
+        double recall = (double) found / (queries * K);
+        assertTrue(recall >= 0.95, "recall@" + K + " was " + recall);
+    }
+
+    @Test
+    void removeAndReAdd_ReturnOnlyLiveVectors() {
+        Random random = new Random(3);
+        HnswIndex index = new HnswIndex(settings);
+        for (int id = 0; id < 300; id++) {
+            index.add(id, randomUnitVector(random, null, 0));
+        }
+        float[] target = randomUnitVector(random, null, 0);
+        index.add(7, target);
+        index.remove(8);
+
+        SkillHits hits = index.search(target, 5);
+
+        assertEquals(7, hits.ids()[indexOfBest(hits)]);
+        assertEquals(1f, hits.scores()[indexOfBest(hits)], 1e-5);
+        for (int id : hits.ids()) {
+            assertNotEquals(8, id);
+        }
+        assertEquals(299, index.size());
+        assertEquals(2, index.deletedCount());
+
+        HnswIndex compacted = index.compact();
+        assertEquals(299, compacted.size());
+        assertEquals(0, compacted.deletedCount());
+        assertTrue(Float.isNaN(compacted.similarity(target, 8)));
+    }
+
+    private static Set<Integer> bruteForce(float[][] vectors, float[] query) {
+        TopK top = new TopK(K);
+        for (int id = 0; id < vectors.length; id++) {
+            top.offer(id, HashingEmbedder.dot(query, vectors[id]));
+        }
+        Set<Integer> ids = new HashSet<>();
+        for (int id : top.ranked(0).ids()) ids.add(id);
+        return ids;
+    }
+
+    private static int indexOfBest(SkillHits hits) {
+        int best = 0;
+        for (int i = 1; i < hits.size(); i++) {
+            if (hits.scores()[i] > hits.scores()[best]) best = i;
+        }
+        return best;
+    }
+
+    private static float[] randomUnitVector(Random random, float[] center, float noise) {
+        float[] vector = new float[DIMENSIONS];
+        double norm = 0;
+        for (int d = 0; d < DIMENSIONS; d++) {
+            vector[d] = (center == null ? 0 : center[d]) + (float) random.nextGaussian() * (center == null ? 1 : noise / (float) Math.sqrt(DIMENSIONS));
+            norm += vector[d] * vector[d];
+        }
+        for (int d = 0; d < DIMENSIONS; d++) {
+            vector[d] /= (float) Math.sqrt(norm);
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,95 @@
+package com.walid.jobmatcher.matching;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvertedSkillIndexTest {
+
+    private final MatchScorer keyword = new KeywordScorer();
+    private final List<NormalizedSkill> skills = List.of(
+            NormalizedSkill.of("Java"), NormalizedSkill.of("Spring Boot"), NormalizedSkill.of("Kafka"));
+
+    @Test
+    void match_CountsMatchedSkillsPerDocument() {
+        InvertedSkillIndex index = new InvertedSkillIndex.Builder()
+                .add(7, SkillTokenizer.profile("Java and Spring Boot"))
+                .add(3, SkillTokenizer.profile("JavaScript, Kafka"))
+                .add(5, SkillTokenizer.profile("Python"))
+                .build();
+
+        SkillHits hits = index.match(skills, keyword);
+
+        assertArrayEquals(new int[]{3, 7}, hits.ids());
+        assertArrayEquals(new float[]{1f, 2f}, hits.scores());
+        assertEquals(3, index.documentCount());
+    }
+
+    @Test
+    void retain_KeepsOnlyTheListedDocuments() {
+        InvertedSkillIndex index = new InvertedSkillIndex.Builder()
+                .add(7, SkillTokenizer.profile("Java and Spring Boot"))
+                .add(3, SkillTokenizer.profile("JavaScript, Kafka"))
+                .add(9, SkillTokenizer.profile("Kafka"))
+                .build();
+
+        SkillHits hits = index.match(skills, keyword).retain(new int[]{1, 7, 9});
+
+        assertArrayEquals(new int[]{7, 9}, hits.ids());
+        assertArrayEquals(new float[]{2f, 1f}, hits.scores());
+    }
+
+    @Test
+    void addAndRemove_UpdatePostingsIncrementally() {
+        InvertedSkillIndex index = new InvertedSkillIndex();
+        Set<String> profile = SkillTokenizer.profile("Java, Kafka");
+        index.add(2, profile);
+        index.add(1, SkillTokenizer.profile("Kafka"));
+
+        assertArrayEquals(new int[]{1, 2}, index.postings("kafka"));
+
+        index.remove(2, profile);
+
+        assertArrayEquals(new int[]{1}, index.match(skills, keyword).ids());
+        assertEquals(0, index.postings("java").length);
+        assertEquals(1, index.documentCount());
+        assertEquals(1.0, index.averageDocumentLength());
+    }
+
+    @Test
+    void match_WithBm25_RanksRareSkillsAboveCommonOnes() {
+        InvertedSkillIndex.Builder builder = new InvertedSkillIndex.Builder();
+        for (int id = 1; id <= 20; id++) {
+            builder.add(id, SkillTokenizer.profile("Java"));
+        }
+        builder.add(21, SkillTokenizer.profile("Kafka"));
+        InvertedSkillIndex index = builder.build();
+
+        SkillHits hits = index.match(skills, new Bm25Scorer(index, 1.2f, 0.75f));
+
+        assertEquals(21, hits.size());
+        assertEquals(21, hits.ids()[20]);
+        assertTrue(hits.scores()[20] > hits.scores()[0]);
+    }
+
+    @Test
+    void incrementalUpdates_KeepSameStatisticsAsBulkBuild() {
+        Set<String> first = SkillTokenizer.profile("Java, Spring Boot");
+        Set<String> second = SkillTokenizer.profile("Kafka");
+        InvertedSkillIndex incremental = new InvertedSkillIndex();
+        incremental.add(1, first);
+        incremental.add(2, second);
+        incremental.add(3, SkillTokenizer.profile("Java, Kafka, Go"));
+        incremental.remove(3, SkillTokenizer.profile("Java, Kafka, Go"));
+
+        InvertedSkillIndex bulk = new InvertedSkillIndex.Builder().add(1, first).add(2, second).build();
+
+        assertEquals(bulk.documentCount(), incremental.documentCount());
+        assertEquals(bulk.averageDocumentLength(), incremental.averageDocumentLength());
+        assertEquals(bulk.documentFrequency("java"), incremental.documentFrequency("java"));
+        assertEquals(bulk.documentFrequency("kafka"), incremental.documentFrequency("kafka"));
+    }
+}
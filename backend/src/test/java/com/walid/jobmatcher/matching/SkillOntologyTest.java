@@ -0,0 +1,60 @@
+package com.walid.jobmatcher.matching;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SkillOntologyTest {
+
+    private final SkillOntology ontology = parse("""
+            # comment
+            javascript = JS, ECMAScript
+            postgresql = Postgres, psql
+            amazon web services = AWS
+            """);
+
+    @Test
+    void lookup_MapsEveryFormToItsCanonicalSkill() {
+        int javascript = ontology.lookup("javascript");
+
+        assertEquals(javascript, ontology.lookup("js"));
+        assertEquals(javascript, ontology.lookup("ecmascript"));
+        assertEquals("amazon web services", ontology.term(ontology.lookup("aws")));
+        assertEquals(-1, ontology.lookup("java"));
+        assertEquals(-1, ontology.lookup("amazon web"));
+        assertEquals(3, ontology.canonicalSkills());
+        assertEquals(8, ontology.surfaceForms());
+    }
+
+    @Test
+    void canonicalize_MatchesSynonymsOnBothSides() {
+        Set<String> profile = ontology.canonicalize(SkillTokenizer.profile("Frontend in ECMAScript, data in Postgres on AWS"));
+        List<NormalizedSkill> required = List.of(NormalizedSkill.of("JS", ontology),
+                NormalizedSkill.of("PostgreSQL", ontology), NormalizedSkill.of("Amazon Web Services", ontology),
+                NormalizedSkill.of("Java", ontology));
+
+        assertEquals(List.of("javascript"), required.get(0).terms());
+        assertEquals(List.of(true, true, true, false), required.stream().map(skill -> skill.matches(profile)).toList());
+    }
+
+    @Test
+    void compile_RejectsAFormOfTwoSkills() {
+        Map<String, List<String>> conflicting = Map.of("javascript", List.of("js"), "json", List.of("JS"));
+
+        assertThrows(IllegalArgumentException.class, () -> SkillOntology.compile(conflicting));
+    }
+
+    private static SkillOntology parse(String source) {
+        try {
+            return SkillOntology.parse(new StringReader(source));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
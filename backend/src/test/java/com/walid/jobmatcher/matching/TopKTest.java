@@ -0,0 +1,48 @@
+package com.walid.jobmatcher.matching;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopKTest {
+
+    @Test
+    void ranked_ReturnsSamePageAsFullSort() {
+        Random random = new Random(7);
+        int[] scores = IntStream.range(0, 5_000).map(i -> random.nextInt(20)).toArray();
+        int[] expected = IntStream.range(0, scores.length).boxed()
+                .sorted(Comparator.<Integer>comparingInt(i -> -scores[i]).thenComparingInt(i -> i))
+                .skip(40).limit(25)
+                .mapToInt(Integer::intValue).toArray();
+
+        TopK topK = new TopK(65);
+        for (int id = 0; id < scores.length; id++) {
+            topK.offer(id, scores[id]);
+        }
+        TopK.Ranked page = topK.ranked(40);
+
+        assertArrayEquals(expected, page.ids());
+        assertEquals(scores.length, page.total());
+    }
+
+    @Test
+    void merge_CombinesPartialResults() {
+        TopK left = new TopK(2);
+        TopK right = new TopK(2);
+        left.offer(1, 1f);
+        left.offer(2, 5f);
+        left.offer(3, 3f);
+        right.offer(4, 4f);
+        right.offer(5, 0.5f);
+
+        left.merge(right);
+        TopK.Ranked ranked = left.ranked(0);
+
+        assertArrayEquals(new int[]{2, 4}, ranked.ids());
+        assertEquals(5, ranked.total());
+    }
+}
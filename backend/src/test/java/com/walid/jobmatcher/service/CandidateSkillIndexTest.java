@@ -0,0 +1,63 @@
+package com.walid.jobmatcher.service;
+
+import com.walid.jobmatcher.entity.Candidate;
+import com.walid.jobmatcher.entity.Resume;
+import com.walid.jobmatcher.matching.SkillHits;
+import com.walid.jobmatcher.repository.CandidateRepository;
+import com.walid.jobmatcher.repository.ResumeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CandidateSkillIndexTest {
+
+    @Autowired
+    private CandidateSkillIndex candidateSkillIndex;
+
+    @Autowired
+    private MatchingService matchingService;
+
+    @Autowired
+    private CandidateRepository candidateRepository;
+
+    @Autowired
+    private ResumeRepository resumeRepository;
+
+    private Candidate candidate;
+
+    @BeforeEach
+    void setUp() {
+        resumeRepository.deleteAll();
+        candidateRepository.deleteAll();
+
+        candidate = new Candidate();
+        candidate.setEmail("index@candidate.com");
+        candidate.setPassword("password");
+        candidate.setFullName("Index Candidate");
+        candidate = candidateRepository.save(candidate);
+
+        Resume resume = new Resume();
+        resume.setCandidate(candidate);
+        resume.setExtractedText("Backend developer: Java, Spring Boot, PostgreSQL");
+        resume.setSkillProfile(matchingService.buildSkillProfile(resume.getExtractedText()));
+        resumeRepository.save(resume);
+    }
+
+    @Test
+    void rebuild_LoadsStoredProfiles_AndMatchesJobSkills() {
+        candidateSkillIndex.rebuild();
+
+        SkillHits hits = candidateSkillIndex.match(
+                matchingService.normalize(Arrays.asList("Java", "Spring Boot", "React")), matchingService.scorer("keyword"));
+
+        assertEquals(1, candidateSkillIndex.size());
+        assertArrayEquals(new int[]{Math.toIntExact(candidate.getId())}, hits.ids());
+        assertArrayEquals(new float[]{2f}, hits.scores());
+    }
+}
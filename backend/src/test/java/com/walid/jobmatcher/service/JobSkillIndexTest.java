@@ -0,0 +1,72 @@
+package com.walid.jobmatcher.service;
+
+import com.walid.jobmatcher.entity.JobPost;
+import com.walid.jobmatcher.matching.SkillHits;
+import com.walid.jobmatcher.repository.JobPostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class JobSkillIndexTest {
+
+    @Autowired
+    private JobSkillIndex jobSkillIndex;
+
+    @Autowired
+    private MatchingService matchingService;
+
+    @Autowired
+    private JobPostRepository jobPostRepository;
+
+    private JobPost backendJob;
+    private JobPost frontendJob;
+
+    @BeforeEach
+    void setUp() {
+        jobPostRepository.deleteAll();
+        backendJob = jobPostRepository.save(jobPost("Backend Engineer", Arrays.asList("Java", "Spring Boot", "Kafka")));
+        frontendJob = jobPostRepository.save(jobPost("Frontend Engineer", Arrays.asList("JavaScript", "React")));
+    }
+
+    @Test
+    void rebuild_LoadsRequiredSkills_AndMatchesResumeProfile() {
+        jobSkillIndex.rebuild();
+
+        SkillHits hits = jobSkillIndex.match(matchingService.buildSkillProfile("Java and Spring Boot, some React"), matchingService.scorer("keyword"));
+
+        assertEquals(2, jobSkillIndex.size());
+        assertArrayEquals(new int[]{id(backendJob), id(frontendJob)}, hits.ids());
+        assertArrayEquals(new float[]{2f, 1f}, hits.scores());
+    }
+
+    @Test
+    void add_IndexesNewJobWithoutRebuild() {
+        jobSkillIndex.rebuild();
+        JobPost dataJob = jobPostRepository.save(jobPost("Data Engineer", Arrays.asList("Kafka", "Apache Spark Structured Streaming")));
+
+        jobSkillIndex.add(dataJob.getId(), dataJob.getRequiredSkills());
+        SkillHits hits = jobSkillIndex.match(matchingService.buildSkillProfile("Kafka; Apache Spark Structured Streaming"), matchingService.scorer("keyword"));
+
+        assertArrayEquals(new int[]{id(backendJob), id(dataJob)}, hits.ids());
+        assertArrayEquals(new float[]{1f, 2f}, hits.scores());
+    }
+
+    private static JobPost jobPost(String title, List<String> skills) {
+        JobPost jobPost = new JobPost();
+        jobPost.setTitle(title);
+        jobPost.setDescription(title + " description");
+        jobPost.setRequiredSkills(skills);
+        return jobPost;
+    }
+
+    private static int id(JobPost jobPost) {
+        return Math.toIntExact(jobPost.getId());
+    }
+}
@@ -0,0 +1,40 @@
+package com.walid.jobmatcher.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalBlobStoreTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void put_StoresTheContentInAShardAndOpenServesIt() throws Exception {
+        LocalBlobStore store = new LocalBlobStore(root);
+        byte[] content = "Platform engineer: Go, Terraform".getBytes(StandardCharsets.UTF_8);
+
+        String location = store.put(SpooledContent.of("cv.txt", content));
+
+        assertTrue(location.matches("local:[0-9a-f]{2}/[0-9a-f]{2}/[0-9a-f]{32}"));
+        assertTrue(Files.isRegularFile(root.resolve(location.substring("local:".length()))));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (BlobContent blob = store.open(location)) {
+            assertEquals(content.length, blob.size());
+            assertEquals(10, blob.transferTo(19, 10, Channels.newChannel(out)));
+        }
+        assertEquals("Go, Terraf", out.toString(StandardCharsets.UTF_8));
+
+        store.delete(location);
+        assertThrows(NoSuchFileException.class, () -> store.open(location));
+        assertThrows(NoSuchFileException.class, () -> store.open("local:../../etc/passwd"));
+    }
+}
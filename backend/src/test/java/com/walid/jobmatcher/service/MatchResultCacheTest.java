@@ -0,0 +1,140 @@
+package com.walid.jobmatcher.service;
+
+import com.walid.jobmatcher.entity.JobPost;
+import com.walid.jobmatcher.event.JobPostCreatedEvent;
+import com.walid.jobmatcher.event.ResumeChangedEvent;
+import com.walid.jobmatcher.matching.MatchMode;
+import com.walid.jobmatcher.matching.TopK;
+import com.walid.jobmatcher.repository.JobPostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class MatchResultCacheTest {
+
+    private static final TopK.Ranked EMPTY = new TopK(1).ranked(0);
+
+    @Autowired
+    private MatchResultCache matchResultCache;
+
+    @Autowired
+    private JobSkillIndex jobSkillIndex;
+
+    @Autowired
+    private JobPostRepository jobPostRepository;
+
+    @Autowired
+    private MatchingService matchingService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private JobPost javaJob;
+    private JobPost designJob;
+
+    @BeforeEach
+    void setUp() {
+        jobPostRepository.deleteAll();
+        javaJob = jobPostRepository.save(jobPost("Java Engineer", Arrays.asList("Java", "Spring Boot")));
+        designJob = jobPostRepository.save(jobPost("Product Designer", Arrays.asList("Figma")));
+        jobSkillIndex.rebuild();
+    }
+
+    @Test
+    void resumeChange_InvalidatesOnlyTheJobsItCanReach() {
+        MatchResultCache.Key javaKey = candidatesFor(javaJob, MatchMode.KEYWORD, "keyword");
+        MatchResultCache.Key designKey = candidatesFor(designJob, MatchMode.KEYWORD, "keyword");
+        MatchResultCache.Key designBm25Key = candidatesFor(designJob, MatchMode.KEYWORD, "bm25");
+        load(javaKey);
+        load(designKey);
+        load(designBm25Key);
+        load(javaKey);
+        assertEquals(3, loads.get());
+
+        eventPublisher.publishEvent(new ResumeChangedEvent(42L, null,
+                matchingService.buildSkillProfile("Java and Spring Boot")));
+
+        load(javaKey);
+        load(designKey);
+        load(designBm25Key);
+        // the Java job and every BM25 ranking are recomputed; the design ranking is untouched
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void jobCreation_InvalidatesSemanticRankingsOfCandidates() {
+        MatchResultCache.Key keyword = new MatchResultCache.Key(MatchResultCache.Direction.JOBS_FOR_CANDIDATE,
+                7L, MatchMode.KEYWORD, "keyword", 0f, 0, 50);
+        MatchResultCache.Key semantic = new MatchResultCache.Key(MatchResultCache.Direction.JOBS_FOR_CANDIDATE,
+                7L, MatchMode.SEMANTIC, "keyword", 0f, 0, 50);
+        load(keyword);
+        load(semantic);
+
+        eventPublisher.publishEvent(new JobPostCreatedEvent(999L, List.of("Cobol")));
+
+        load(keyword);
+        load(semantic);
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void pageLoadedDuringAnInvalidation_IsNotKept() throws Exception {
+        MatchResultCache.Key javaKey = candidatesFor(javaJob, MatchMode.KEYWORD, "keyword");
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+        CompletableFuture<TopK.Ranked> slowLoad = CompletableFuture.supplyAsync(() -> matchResultCache.get(javaKey, k -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            try {
+                assertTrue(invalidated.await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return EMPTY;
+        }));
+        assertTrue(loading.await(10, TimeUnit.SECONDS));
+
+        eventPublisher.publishEvent(new ResumeChangedEvent(42L, null,
+                matchingService.buildSkillProfile("Java and Spring Boot")));
+        invalidated.countDown();
+        assertSame(EMPTY, slowLoad.get(10, TimeUnit.SECONDS));
+
+        // the page may predate the change, so the next request scores again
+        load(javaKey);
+        assertEquals(2, loads.get());
+        load(javaKey);
+        assertEquals(2, loads.get());
+    }
+
+    private void load(MatchResultCache.Key key) {
+        matchResultCache.get(key, k -> {
+            loads.incrementAndGet();
+            return EMPTY;
+        });
+    }
+
+    private static MatchResultCache.Key candidatesFor(JobPost job, MatchMode mode, String scorer) {
+        return new MatchResultCache.Key(MatchResultCache.Direction.CANDIDATES_FOR_JOB, job.getId(), mode, scorer, 0f, 0, 50);
+    }
+
+    private static JobPost jobPost(String title, List<String> skills) {
+        JobPost jobPost = new JobPost();
+        jobPost.setTitle(title);
+        jobPost.setDescription(title + " description");
+        jobPost.setRequiredSkills(skills);
+        return jobPost;
+    }
+}
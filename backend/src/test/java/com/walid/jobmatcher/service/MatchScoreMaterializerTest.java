@@ -0,0 +1,143 @@
+package com.walid.jobmatcher.service;
+
+import com.walid.jobmatcher.entity.Candidate;
+import com.walid.jobmatcher.entity.JobPost;
+import com.walid.jobmatcher.entity.MatchCount;
+import com.walid.jobmatcher.entity.Resume;
+import com.walid.jobmatcher.event.JobPostCreatedEvent;
+import com.walid.jobmatcher.event.ResumeChangedEvent;
+import com.walid.jobmatcher.repository.CandidateRepository;
+import com.walid.jobmatcher.repository.JobPostRepository;
+import com.walid.jobmatcher.repository.MatchCountRepository;
+import com.walid.jobmatcher.repository.MatchScoreRepository;
+import com.walid.jobmatcher.repository.MatchScoreView;
+import com.walid.jobmatcher.repository.ResumeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "matching.materialized.enabled=true")
+class MatchScoreMaterializerTest {
+
+    @Autowired
+    private MatchScoreMaterializer materializer;
+
+    @Autowired
+    private MatchScoreRepository matchScoreRepository;
+
+    @Autowired
+    private MatchCountRepository matchCountRepository;
+
+    @Autowired
+    private CandidateSkillIndex candidateSkillIndex;
+
+    @Autowired
+    private JobSkillIndex jobSkillIndex;
+
+    @Autowired
+    private MatchingService matchingService;
+
+    @Autowired
+    private CandidateRepository candidateRepository;
+
+    @Autowired
+    private ResumeRepository resumeRepository;
+
+    @Autowired
+    private JobPostRepository jobPostRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private Candidate candidate;
+    private JobPost javaJob;
+    private JobPost designJob;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        awaitIdle();
+        matchScoreRepository.deleteAll();
+        matchCountRepository.deleteAll();
+        resumeRepository.deleteAll();
+        candidateRepository.deleteAll();
+        jobPostRepository.deleteAll();
+
+        candidate = new Candidate();
+        candidate.setEmail("materialized@candidate.com");
+        candidate.setPassword("password");
+        candidate.setFullName("Materialized Candidate");
+        candidate = candidateRepository.save(candidate);
+
+        Resume resume = new Resume();
+        resume.setCandidate(candidate);
+        resume.setExtractedText("Backend developer: Java, Spring Boot, PostgreSQL");
+        resume.setSkillProfile(matchingService.buildSkillProfile(resume.getExtractedText()));
+        resumeRepository.save(resume);
+
+        javaJob = jobPostRepository.save(jobPost("Java Engineer", Arrays.asList("Java", "Spring Boot", "Kafka")));
+        designJob = jobPostRepository.save(jobPost("Product Designer", Arrays.asList("Figma")));
+        candidateSkillIndex.rebuild();
+        jobSkillIndex.rebuild();
+    }
+
+    @Test
+    void refreshJob_IsIdempotent() {
+        assertEquals(1, materializer.refreshJob(javaJob.getId()));
+        assertEquals(1, materializer.refreshJob(javaJob.getId()));
+        assertEquals(0, materializer.refreshJob(designJob.getId()));
+
+        List<MatchScoreView> top = matchScoreRepository.findTopCandidates(javaJob.getId(), 0f, 0, 10);
+        assertEquals(1, top.size());
+        assertEquals(candidate.getId(), top.get(0).getSubjectId());
+        assertEquals(2f, top.get(0).getScore());
+        assertEquals(1, matchScoreRepository.count());
+        assertEquals(1, matchScoreRepository.countCandidates(javaJob.getId(), 0f));
+        assertEquals(0, matchScoreRepository.countCandidates(javaJob.getId(), 3f));
+        // job refreshes keep the candidates' totals as well as their own
+        assertEquals(Optional.of(1), matchCountRepository.findTotal(MatchCount.JOB, javaJob.getId()));
+        assertEquals(Optional.of(0), matchCountRepository.findTotal(MatchCount.JOB, designJob.getId()));
+        assertEquals(Optional.of(1), matchCountRepository.findTotal(MatchCount.CANDIDATE, candidate.getId()));
+
+        assertEquals(1, materializer.refreshCandidate(candidate.getId()));
+        assertEquals(Optional.of(1), matchCountRepository.findTotal(MatchCount.CANDIDATE, candidate.getId()));
+        assertEquals(Optional.of(1), matchCountRepository.findTotal(MatchCount.JOB, javaJob.getId()));
+    }
+
+    @Test
+    void events_AreMaterializedInTheBackground() throws InterruptedException {
+        eventPublisher.publishEvent(new JobPostCreatedEvent(designJob.getId(), designJob.getRequiredSkills()));
+        eventPublisher.publishEvent(new ResumeChangedEvent(candidate.getId(), null, null));
+        awaitIdle();
+
+        List<MatchScoreView> top = matchScoreRepository.findTopJobs(candidate.getId(), 0f, 0, 10);
+        assertEquals(1, top.size());
+        assertEquals(javaJob.getId(), top.get(0).getSubjectId());
+        assertEquals(2f, top.get(0).getScore());
+        assertTrue(materializer.status().refreshed() >= 2);
+    }
+
+    private void awaitIdle() throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            MatchScoreMaterializer.Status status = materializer.status();
+            if (status.pendingJobs() == 0 && status.pendingCandidates() == 0 && !status.refreshing()) return;
+            Thread.sleep(50);
+        }
+        fail("materializer still busy: " + materializer.status());
+    }
+
+    private static JobPost jobPost(String title, List<String> skills) {
+        JobPost jobPost = new JobPost();
+        jobPost.setTitle(title);
+        jobPost.setDescription(title + " description");
+        jobPost.setRequiredSkills(skills);
+        return jobPost;
+    }
+}
@@ -1,11 +1,19 @@
 package com.walid.jobmatcher.service;
 
+import com.walid.jobmatcher.matching.InvertedSkillIndex;
+import com.walid.jobmatcher.matching.KeywordScorer;
+import com.walid.jobmatcher.matching.NormalizedSkill;
+import com.walid.jobmatcher.matching.SkillHits;
+import com.walid.jobmatcher.matching.SkillTokenizer;
+import com.walid.jobmatcher.matching.TopK;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -20,7 +28,8 @@ class MatchingServiceTest {
         List<String> requiredSkills = Arrays.asList("Java", "Spring", "Hibernate");
         String resumeText = "Experienced Java developer with Spring and Hibernate knowledge";
 
-        int score = matchingService.calculateMatchScore(requiredSkills, resumeText);
+        int score = matchingService.calculateMatchScore(matchingService.normalize(requiredSkills),
+                matchingService.buildSkillProfile(resumeText));
 
         assertEquals(3, score);
     }
@@ -30,7 +39,8 @@ class MatchingServiceTest {
         List<String> requiredSkills = Arrays.asList("Java", "Spring", "Hibernate", "React");
         String resumeText = "Experienced Java developer with Spring knowledge";
 
-        int score = matchingService.calculateMatchScore(requiredSkills, resumeText);
+        int score = matchingService.calculateMatchScore(matchingService.normalize(requiredSkills),
+                matchingService.buildSkillProfile(resumeText));
 
         assertEquals(2, score);
     }
@@ -40,7 +50,8 @@ class MatchingServiceTest {
         List<String> requiredSkills = Arrays.asList("Java", "Spring");
         String resumeText = "Python developer with Django experience";
 
-        int score = matchingService.calculateMatchScore(requiredSkills, resumeText);
+        int score = matchingService.calculateMatchScore(matchingService.normalize(requiredSkills),
+                matchingService.buildSkillProfile(resumeText));
 
         assertEquals(0, score);
     }
@@ -50,7 +61,8 @@ class MatchingServiceTest {
         List<String> requiredSkills = Arrays.asList("Java", "Spring");
         String resumeText = "";
 
-        int score = matchingService.calculateMatchScore(requiredSkills, resumeText);
+        int score = matchingService.calculateMatchScore(matchingService.normalize(requiredSkills),
+                matchingService.buildSkillProfile(resumeText));
 
         assertEquals(0, score);
     }
@@ -60,8 +72,60 @@ class MatchingServiceTest {
         List<String> requiredSkills = Arrays.asList("Java", "Spring");
         String resumeText = null;
 
-        int score = matchingService.calculateMatchScore(requiredSkills, resumeText);
+        int score = matchingService.calculateMatchScore(matchingService.normalize(requiredSkills),
+                matchingService.buildSkillProfile(resumeText));
 
         assertEquals(0, score);
     }
-} 
\ No newline at end of file
+
+    @Test
+    void calculateMatchScore_WithSkillProfile_MatchesWholeWordsOnly() {
+        List<String> requiredSkills = Arrays.asList("Java", "Go", "Spring Boot", "Node.js", "C++");
+        Set<String> profile = matchingService.buildSkillProfile(
+                "Senior JavaScript engineer at Google. Built Spring-Boot services, node.js tooling and C++ plugins.");
+
+        int score = matchingService.calculateMatchScore(matchingService.normalize(requiredSkills), profile);
+
+        assertEquals(3, score);
+    }
+
+    @Test
+    void calculateMatchScore_WithLongSkill_RequiresAllWindows() {
+        List<String> requiredSkills = Arrays.asList("Amazon Web Services Lambda");
+        Set<String> matching = matchingService.buildSkillProfile("Deployed on Amazon Web Services Lambda and S3");
+        Set<String> split = matchingService.buildSkillProfile("Amazon Web Services, Lambda");
+
+        assertEquals(1, matchingService.calculateMatchScore(matchingService.normalize(requiredSkills), matching));
+        assertEquals(0, matchingService.calculateMatchScore(matchingService.normalize(requiredSkills), split));
+    }
+
+    @Test
+    void blend_MixesScaledKeywordScoresWithSimilarity() {
+        SkillHits keyword = new SkillHits(new int[]{1, 3}, new float[]{2f, 1f});
+        SkillHits semantic = new SkillHits(new int[]{2, 3}, new float[]{0.8f, 0.5f});
+
+        SkillHits blended = matchingService.blend(keyword, semantic, id -> id == 1 ? 0.4 : Double.NaN);
+
+        assertArrayEquals(new int[]{1, 2, 3}, blended.ids());
+        assertArrayEquals(new float[]{0.7f, 0.4f, 0.5f}, blended.scores(), 1e-6f);
+    }
+
+    @Test
+    void selectTop_OverALargePool_ScoresInParallelChunksLikeTheSerialPath() {
+        String[] resumes = {"Java", "Java, Spring Boot", "Kafka, Java", "Go", "React, Spring Boot, Kafka"};
+        Random random = new Random(11);
+        InvertedSkillIndex.Builder builder = new InvertedSkillIndex.Builder();
+        for (int id = 1; id < 200_000; id += 1 + random.nextInt(3)) {
+            builder.add(id, SkillTokenizer.profile(resumes[random.nextInt(resumes.length)]));
+        }
+        InvertedSkillIndex index = builder.build();
+        List<NormalizedSkill> skills = matchingService.normalize(Arrays.asList("Java", "Spring Boot", "Kafka"));
+
+        TopK.Ranked serial = matchingService.selectTop(index.match(skills, new KeywordScorer()), 1f, 40, 100);
+        TopK.Ranked parallel = matchingService.selectTop(index.query(skills, new KeywordScorer()), 1f, 40, 100);
+
+        assertArrayEquals(serial.ids(), parallel.ids());
+        assertArrayEquals(serial.scores(), parallel.scores());
+        assertEquals(serial.total(), parallel.total());
+    }
+}
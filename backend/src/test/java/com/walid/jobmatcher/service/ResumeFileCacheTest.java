@@ -0,0 +1,65 @@
+package com.walid.jobmatcher.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResumeFileCacheTest {
+
+    @TempDir
+    Path directory;
+
+    private final AtomicInteger downloads = new AtomicInteger();
+
+    @Test
+    void open_EvictsTheLeastRecentlyUsedFileOnceFull() throws Exception {
+        ResumeFileCache cache = new ResumeFileCache(directory, DataSize.ofBytes(20), new SimpleMeterRegistry());
+
+        read(cache, "a");
+        read(cache, "b");
+        read(cache, "a");
+        read(cache, "c");
+        assertEquals(3, downloads.get());
+        assertEquals(20, cache.size());
+
+        assertEquals("content:a.", read(cache, "a"));
+        assertEquals(3, downloads.get());
+        read(cache, "b");
+        assertEquals(4, downloads.get());
+    }
+
+    @Test
+    void constructor_IndexesFilesCachedByAPreviousRun() throws Exception {
+        read(new ResumeFileCache(directory, DataSize.ofKilobytes(1), new SimpleMeterRegistry()), "a");
+
+        ResumeFileCache restarted = new ResumeFileCache(directory, DataSize.ofKilobytes(1), new SimpleMeterRegistry());
+
+        assertEquals(10, restarted.size());
+        assertEquals("content:a.", read(restarted, "a"));
+        assertEquals(1, downloads.get());
+    }
+
+    // 10 bytes per file
+    private String read(ResumeFileCache cache, String name) throws Exception {
+        Callable<InputStream> source = () -> {
+            downloads.incrementAndGet();
+            return new ByteArrayInputStream(("content:" + name + ".").getBytes());
+        };
+        try (FileChannel channel = cache.open("https://files.example.com/" + name, source)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            channel.read(buffer, 0);
+            return new String(buffer.array());
+        }
+    }
+}
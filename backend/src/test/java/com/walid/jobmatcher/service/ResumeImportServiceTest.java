@@ -0,0 +1,138 @@
+package com.walid.jobmatcher.service;
+
+import com.walid.jobmatcher.entity.Candidate;
+import com.walid.jobmatcher.matching.KeywordScorer;
+import com.walid.jobmatcher.repository.CandidateRepository;
+import com.walid.jobmatcher.repository.ResumeRepository;
+import com.walid.jobmatcher.repository.ResumeTextView;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "resume.import.batch-size=2")
+class ResumeImportServiceTest {
+
+    static final class CountingStorage extends ResumeFileStorage {
+        final AtomicInteger uploads = new AtomicInteger();
+
+        CountingStorage() {
+            super(new InMemoryBlobStore());
+        }
+
+        @Override
+        public String upload(SpooledContent content) {
+            return "https://files.example.com/import/" + uploads.incrementAndGet();
+        }
+    }
+
+    @TestConfiguration
+    static class StorageConfig {
+        @Bean
+        @Primary
+        CountingStorage countingStorage() {
+            return new CountingStorage();
+        }
+    }
+
+    @Autowired
+    private ResumeImportService importService;
+
+    @Autowired
+    private CountingStorage storage;
+
+    @Autowired
+    private CandidateRepository candidateRepository;
+
+    @Autowired
+    private ResumeRepository resumeRepository;
+
+    @Autowired
+    private CandidateSkillIndex candidateSkillIndex;
+
+    @Autowired
+    private MatchingService matchingService;
+
+    @Test
+    void importArchive_WritesEveryListedResumeAndRebuildsTheIndex() throws Exception {
+        String run = String.valueOf(System.nanoTime());
+        List<Candidate> candidates = List.of(candidate(run, 1), candidate(run, 2), candidate(run, 3));
+        String shared = "Site reliability engineer " + run + ": Terraform and Kubernetes";
+        Map<String, String> files = new LinkedHashMap<>();
+        files.put("manifest.csv", "file,candidateId\n"
+                + "a.txt," + candidates.get(0).getId() + "\n"
+                + "b.txt," + candidates.get(1).getId() + "\n"
+                + "c.txt," + candidates.get(2).getId() + "\n"
+                + "d.txt,-1\n"
+                + "missing.txt," + candidates.get(0).getId() + "\n");
+        files.put("a.txt", shared);
+        files.put("b.txt", shared);
+        files.put("c.txt", "Frontend developer " + run + ": Svelte");
+        files.put("d.txt", "Nobody");
+
+        ResumeImportService.ImportJob job = importService.importArchive(new ByteArrayInputStream(zip(files)));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (job.getStatus() == ResumeImportService.Status.RUNNING && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(ResumeImportService.Status.COMPLETED, job.getStatus());
+        assertSame(job, importService.find(job.getId()).orElseThrow());
+        assertEquals(5, job.getTotal());
+        assertEquals(3, job.getImported());
+        assertEquals(1, job.getDeduplicated());
+        assertEquals(2, job.getFailed());
+        assertEquals(2, storage.uploads.get());
+        var first = resumeRepository.findByCandidateId(candidates.get(0).getId()).orElseThrow();
+        var second = resumeRepository.findByCandidateId(candidates.get(1).getId()).orElseThrow();
+        assertEquals(first.getFilePath(), second.getFilePath());
+        assertTrue(resumeRepository.findTextByCandidateId(candidates.get(0).getId())
+                .map(ResumeTextView::getExtractedText).orElseThrow().contains("Terraform"));
+        int[] hits = candidateSkillIndex.match(matchingService.normalize(List.of("Svelte")), new KeywordScorer()).ids();
+        assertTrue(Arrays.stream(hits).anyMatch(id -> id == candidates.get(2).getId()));
+    }
+
+    @Test
+    void importArchive_WithoutManifest_IsRejected() throws Exception {
+        byte[] archive = zip(Map.of("a.txt", "Java"));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> importService.importArchive(new ByteArrayInputStream(archive)));
+        assertTrue(e.getMessage().startsWith("manifest.csv"));
+    }
+
+    private Candidate candidate(String run, int n) {
+        Candidate candidate = new Candidate();
+        candidate.setEmail("import-" + run + "-" + n + "@example.com");
+        candidate.setFullName("Imported Candidate " + n);
+        return candidateRepository.save(candidate);
+    }
+
+    private static byte[] zip(Map<String, String> files) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(bytes)) {
+            for (Map.Entry<String, String> file : files.entrySet()) {
+                out.putNextEntry(new ZipEntry(file.getKey()));
+                out.write(file.getValue().getBytes(StandardCharsets.UTF_8));
+                out.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,198 @@
+package com.walid.jobmatcher.service;
+
+import com.walid.jobmatcher.entity.Candidate;
+import com.walid.jobmatcher.entity.Resume;
+import com.walid.jobmatcher.exception.TooManyRequestsException;
+import com.walid.jobmatcher.matching.KeywordScorer;
+import com.walid.jobmatcher.repository.CandidateRepository;
+import com.walid.jobmatcher.repository.ResumeRepository;
+import com.walid.jobmatcher.repository.ResumeTextView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+
+// the heap limit is low enough that the longer resumes below are memory-mapped
+@SpringBootTest(properties = {"resume.ingestion.max-pending=1", "resume.ingestion.heap-spool-limit=16B"})
+class ResumeIngestionServiceTest {
+
+    // Holds every upload until released, so a test can keep an ingestion in flight
+    static final class GatedStorage extends ResumeFileStorage {
+        volatile CountDownLatch gate = new CountDownLatch(0);
+        final AtomicInteger uploads = new AtomicInteger();
+
+        GatedStorage() {
+            super(new InMemoryBlobStore());
+        }
+
+        @Override
+        public String upload(SpooledContent content) throws Exception {
+            assertTrue(gate.await(10, TimeUnit.SECONDS));
+            uploads.incrementAndGet();
+            return "https://files.example.com/" + (content.isMapped() ? "mapped/" : "heap/") + content.size();
+        }
+    }
+
+    @TestConfiguration
+    static class StorageConfig {
+        @Bean
+        @Primary
+        GatedStorage gatedStorage() {
+            return new GatedStorage();
+        }
+    }
+
+    @Autowired
+    private ResumeIngestionService ingestionService;
+
+    @Autowired
+    private GatedStorage storage;
+
+    @Autowired
+    private CandidateRepository candidateRepository;
+
+    @MockitoSpyBean
+    private ResumeRepository resumeRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CandidateSkillIndex candidateSkillIndex;
+
+    @Autowired
+    private MatchingService matchingService;
+
+    private Candidate candidate;
+
+    @BeforeEach
+    void setUp() {
+        candidate = new Candidate();
+        candidate.setEmail("ingest-" + System.nanoTime() + "@example.com");
+        candidate.setFullName("Ingest Candidate");
+        candidate = candidateRepository.save(candidate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        storage.gate = new CountDownLatch(0);
+    }
+
+    @Test
+    void submit_RunsTheStagesInTheBackgroundAndIndexesTheResume() throws Exception {
+        ResumeIngestionService.Ingestion ingestion = ingestionService.submit(candidate.getId(),
+                file("resume.txt", "Backend engineer: Java, Spring Boot and Kafka"));
+
+        assertEquals(ResumeIngestionService.Status.COMPLETED, awaitFinal(ingestion));
+        assertSame(ingestion, ingestionService.find(ingestion.getId()).orElseThrow());
+        var resume = resumeRepository.findByCandidateId(candidate.getId()).orElseThrow();
+        assertTrue(text(candidate.getId()).contains("Spring Boot"));
+        assertEquals("https://files.example.com/mapped/45", resume.getFilePath());
+        int[] hits = candidateSkillIndex.match(matchingService.normalize(List.of("Kafka")),
+                new KeywordScorer()).ids();
+        assertTrue(Arrays.stream(hits).anyMatch(id -> id == candidate.getId()));
+    }
+
+    @Test
+    void submit_WhenMaxPendingAreInFlight_IsRejected() throws Exception {
+        storage.gate = new CountDownLatch(1);
+        ResumeIngestionService.Ingestion first = ingestionService.submit(candidate.getId(), file("first.txt", "Java"));
+
+        assertThrows(TooManyRequestsException.class, () -> ingestionService.submit(candidate.getId(), file("second.txt", "Go")));
+
+        storage.gate.countDown();
+        assertEquals(ResumeIngestionService.Status.COMPLETED, awaitFinal(first));
+        // the permit is returned once the pipeline finishes
+        ResumeIngestionService.Ingestion third = ingestionService.submit(candidate.getId(), file("third.txt", "Rust"));
+        assertEquals(ResumeIngestionService.Status.COMPLETED, awaitFinal(third));
+    }
+
+    @Test
+    void submit_WhenTheContentIsAlreadyStored_ReusesTheFileAndText() throws Exception {
+        String text = "Data engineer " + System.nanoTime() + ": Airflow and Spark";
+        assertEquals(ResumeIngestionService.Status.COMPLETED,
+                awaitFinal(ingestionService.submit(candidate.getId(), file("cv.txt", text))));
+        int uploads = storage.uploads.get();
+
+        Candidate other = new Candidate();
+        other.setEmail("ingest-other-" + System.nanoTime() + "@example.com");
+        other.setFullName("Other Candidate");
+        other = candidateRepository.save(other);
+        ResumeIngestionService.Ingestion again = ingestionService.submit(other.getId(), file("same-cv.txt", text));
+
+        assertEquals(ResumeIngestionService.Status.COMPLETED, awaitFinal(again));
+        assertTrue(again.isDeduplicated());
+        assertEquals(uploads, storage.uploads.get());
+        var original = resumeRepository.findByCandidateId(candidate.getId()).orElseThrow();
+        var copy = resumeRepository.findByCandidateId(other.getId()).orElseThrow();
+        assertEquals(original.getContentHash(), copy.getContentHash());
+        assertEquals(original.getFilePath(), copy.getFilePath());
+        assertEquals(text(candidate.getId()), text(other.getId()));
+    }
+
+    @Test
+    void submit_WhenTheReusedResumeIsDeletedBeforeTheCommit_UploadsTheFile() throws Exception {
+        String text = "Site reliability engineer " + System.nanoTime() + ": Terraform and Go";
+        assertEquals(ResumeIngestionService.Status.COMPLETED,
+                awaitFinal(ingestionService.submit(candidate.getId(), file("cv.txt", text))));
+        int uploads = storage.uploads.get();
+        // the owner deletes their resume right after the duplicate was found
+        var stored = resumeRepository.findFirstByContentHash(
+                resumeRepository.findByCandidateId(candidate.getId()).orElseThrow().getContentHash());
+        doAnswer(invocation -> {
+            transactionTemplate.executeWithoutResult(status -> {
+                Resume resume = resumeRepository.findByCandidateId(candidate.getId()).orElseThrow();
+                resume.getCandidate().setResume(null);
+                resumeRepository.delete(resume);
+            });
+            return stored;
+        }).when(resumeRepository).findFirstByContentHash(anyString());
+
+        Candidate other = new Candidate();
+        other.setEmail("ingest-other-" + System.nanoTime() + "@example.com");
+        other.setFullName("Other Candidate");
+        other = candidateRepository.save(other);
+        ResumeIngestionService.Ingestion again = ingestionService.submit(other.getId(), file("same-cv.txt", text));
+
+        assertEquals(ResumeIngestionService.Status.COMPLETED, awaitFinal(again));
+        assertEquals(uploads + 1, storage.uploads.get());
+        assertTrue(resumeRepository.findByCandidateId(candidate.getId()).isEmpty());
+        assertTrue(text(other.getId()).contains("Terraform and Go"));
+    }
+
+    // Resume text is a lazy attribute, so it is read through the projection outside a session
+    private String text(Long candidateId) {
+        return resumeRepository.findTextByCandidateId(candidateId).map(ResumeTextView::getExtractedText).orElseThrow();
+    }
+
+    private static MockMultipartFile file(String name, String text) {
+        return new MockMultipartFile("file", name, "text/plain", text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ResumeIngestionService.Status awaitFinal(ResumeIngestionService.Ingestion ingestion)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!ingestion.getStatus().isFinal() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        return ingestion.getStatus();
+    }
+}
@@ -0,0 +1,108 @@
+package com.walid.jobmatcher.service;
+
+import com.walid.jobmatcher.entity.CompressedTextConverter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Peak live heap of a full resume scan at growing table sizes, sampled with a full GC at
+ * each quarter of the scan. Rows live in a file-backed H2 database with a small page
+ * cache and lazy query execution, so neither the table nor the result set sits in the
+ * heap being measured. Run with
+ * {@code mvn test -Dtest=ResumeScanMemoryBenchmarkTest -Dbenchmark.memory=true}, and
+ * optionally {@code -Dbenchmark.memory.sizes=10000,100000,500000}.
+ */
+@EnabledIfSystemProperty(named = "benchmark.memory", matches = "true")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:file:./target/resume-scan-benchmark;MODE=PostgreSQL;CACHE_SIZE=16384;LAZY_QUERY_EXECUTION=TRUE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "matching.profile.backfill-on-startup=false"
+})
+class ResumeScanMemoryBenchmarkTest {
+
+    private static final long MB = 1024 * 1024;
+    // retained growth allowed between the smallest and largest table
+    private static final long MAX_GROWTH = 32 * MB;
+
+    @Autowired
+    private ResumeScanner resumeScanner;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void scan_PeakHeapStaysFlatAsTheTableGrows() {
+        int[] sizes = Arrays.stream(System.getProperty("benchmark.memory.sizes", "10000,100000,500000").split(","))
+                .mapToInt(size -> Integer.parseInt(size.trim())).sorted().toArray();
+        long[] peaks = new long[sizes.length];
+        int seeded = 0;
+        for (int i = 0; i < sizes.length; i++) {
+            seed(seeded, sizes[i]);
+            seeded = sizes[i];
+
+            long baseline = liveHeap();
+            int sampleEvery = Math.max(1, sizes[i] / 4);
+            AtomicLong peak = new AtomicLong(baseline);
+            AtomicLong seen = new AtomicLong();
+            long start = System.nanoTime();
+            long rows = resumeScanner.forEachText(resume -> {
+                if (resume.getExtractedText().isEmpty()) throw new IllegalStateException("empty text");
+                if (seen.incrementAndGet() % sampleEvery == 0) peak.accumulateAndGet(liveHeap(), Math::max);
+            });
+            rows += resumeScanner.forEachSkillProfile(resume -> {
+                if (seen.incrementAndGet() % sampleEvery == 0) peak.accumulateAndGet(liveHeap(), Math::max);
+            });
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            peaks[i] = peak.get() - baseline;
+
+            assertEquals(2L * sizes[i], rows);
+            System.out.printf("resumes=%,d scanned twice in %,d ms, peak live heap +%,d KB%n",
+                    sizes[i], millis, peaks[i] / 1024);
+        }
+        assertTrue(peaks[peaks.length - 1] - peaks[0] < MAX_GROWTH,
+                "peak heap grew from " + peaks[0] / MB + " MB to " + peaks[peaks.length - 1] / MB + " MB");
+    }
+
+    private void seed(int from, int to) {
+        Random random = new Random(from);
+        String[] words = {"java", "spring", "boot", "kafka", "postgresql", "react", "docker", "kubernetes",
+                "designed", "built", "services", "team", "customers", "latency", "pipelines", "migrated"};
+        int batch = 1000;
+        for (int start = from; start < to; start += batch) {
+            List<Object[]> candidates = new ArrayList<>(batch);
+            List<Object[]> resumes = new ArrayList<>(batch);
+            for (long id = start + 1; id <= Math.min(to, start + batch); id++) {
+                StringBuilder text = new StringBuilder(1600);
+                while (text.length() < 1500) {
+                    text.append(words[random.nextInt(words.length)]).append(' ');
+                }
+                candidates.add(new Object[]{id, "candidate" + id + "@example.com", "Candidate " + id});
+                resumes.add(new Object[]{id, id, "resume" + id + ".pdf",
+                        CompressedTextConverter.compress(text.toString()), "java\nspring boot"});
+            }
+            jdbcTemplate.batchUpdate("insert into candidates (id, email, full_name) values (?, ?, ?)", candidates);
+            jdbcTemplate.batchUpdate("insert into resumes (id, candidate_id, original_file_name, extracted_text_lz4, skill_profile) "
+                    + "values (?, ?, ?, ?, ?)", resumes);
+        }
+    }
+
+    private static long liveHeap() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
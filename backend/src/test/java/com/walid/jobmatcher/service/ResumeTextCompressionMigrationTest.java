@@ -0,0 +1,66 @@
+package com.walid.jobmatcher.service;
+
+import com.walid.jobmatcher.entity.Candidate;
+import com.walid.jobmatcher.entity.CompressedTextConverter;
+import com.walid.jobmatcher.entity.Resume;
+import com.walid.jobmatcher.repository.CandidateRepository;
+import com.walid.jobmatcher.repository.ResumeRepository;
+import com.walid.jobmatcher.repository.ResumeTextView;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ResumeTextCompressionMigrationTest {
+
+    @Autowired
+    private ResumeTextCompressionMigration migration;
+
+    @Autowired
+    private CandidateRepository candidateRepository;
+
+    @Autowired
+    private ResumeRepository resumeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migrate_CompressesTextLeftInTheLegacyColumn() {
+        String text = "Backend developer: Java, Spring Boot, PostgreSQL and Kafka. ".repeat(40);
+        Candidate candidate = new Candidate();
+        candidate.setEmail("compress-" + System.nanoTime() + "@example.com");
+        candidate.setFullName("Legacy Candidate");
+        candidate = candidateRepository.save(candidate);
+        Resume resume = new Resume();
+        resume.setCandidate(candidate);
+        resume.setOriginalFileName("legacy.pdf");
+        resume = resumeRepository.save(resume);
+
+        jdbcTemplate.execute("alter table resumes add column extracted_text text");
+        try {
+            jdbcTemplate.update("update resumes set extracted_text = ? where id = ?", text, resume.getId());
+
+            assertEquals(1, migration.migrate());
+            assertEquals(0, migration.migrate());
+            byte[] column = jdbcTemplate.queryForObject(
+                    "select extracted_text_lz4 from resumes where id = ?", byte[].class, resume.getId());
+            assertTrue(column.length * 4 < text.length());
+            assertEquals(text, resumeRepository.findTextByCandidateId(candidate.getId())
+                    .map(ResumeTextView::getExtractedText).orElseThrow());
+        } finally {
+            jdbcTemplate.execute("alter table resumes drop column extracted_text");
+        }
+    }
+
+    @Test
+    void compress_RoundTripsMultiByteText() {
+        String text = "Développeuse — 日本語 ✓";
+
+        assertEquals(text, CompressedTextConverter.decompress(CompressedTextConverter.compress(text)));
+        assertEquals("", CompressedTextConverter.decompress(CompressedTextConverter.compress("")));
+    }
+}
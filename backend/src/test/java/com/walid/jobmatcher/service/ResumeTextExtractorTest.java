@@ -0,0 +1,58 @@
+package com.walid.jobmatcher.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResumeTextExtractorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ResumeTextExtractor extractor = new ResumeTextExtractor(1, 4, Duration.ofSeconds(30), 64, 2,
+            false, "256m", meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        extractor.shutdown();
+    }
+
+    @Test
+    void extract_CutsTheTextAtMaxChars() throws Exception {
+        String text = extractor.extract(spool("resume.txt", "Java ".repeat(100).getBytes(StandardCharsets.UTF_8))).join();
+
+        assertTrue(text.length() <= 64);
+        assertTrue(text.startsWith("Java Java"));
+        assertEquals(1, meterRegistry.timer("resume.parse", "outcome", "truncated").count());
+        assertEquals(1, meterRegistry.timer("resume.extraction.queue.wait").count());
+    }
+
+    @Test
+    void extract_ParsesOnlyMaxEmbeddedAttachments() throws Exception {
+        ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(zip)) {
+            for (String skill : new String[]{"Kafka", "Rust", "Scala"}) {
+                out.putNextEntry(new ZipEntry(skill + ".txt"));
+                out.write(skill.getBytes(StandardCharsets.UTF_8));
+                out.closeEntry();
+            }
+        }
+
+        String text = extractor.extract(spool("resume.zip", zip.toByteArray())).join();
+
+        assertTrue(text.contains("Kafka") && text.contains("Rust"));
+        assertFalse(text.contains("Scala"));
+        assertEquals(1, meterRegistry.timer("resume.parse", "outcome", "success").count());
+    }
+
+    private static SpooledContent spool(String name, byte[] content) throws Exception {
+        return SpooledContent.spool(new MockMultipartFile("file", name, null, content), 1024 * 1024);
+    }
+}
@@ -88,7 +88,17 @@ export const resumes = {
         'Content-Type': 'multipart/form-data',
       },
     });
-    return response.data;
+    // 202: the file is parsed in the background; poll until the ingestion finishes
+    let ingestion = response.data;
+    while (!ingestion.done) {
+      await new Promise((resolve) => setTimeout(resolve, 1000));
+      const status = await api.get(`/api/candidate/${candidateId}/resume/ingestion/${ingestion.id}`);
+      ingestion = status.data;
+    }
+    if (ingestion.status === 'FAILED') {
+      throw new Error(ingestion.error || 'Resume processing failed');
+    }
+    return ingestion;
   },
   getText: async (candidateId: number) => {
     const response = await api.get(`/api/candidate/${candidateId}/resume-text`);